@@ -0,0 +1,37 @@
+package com.example.testassignment.benchmark;
+
+import com.example.testassignment.dto.UserDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic user data shared by the benchmarks, so that runs on different releases measure the same input.
+ */
+final class BenchmarkData {
+
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1940, 1, 1);
+
+    private static final int BIRTH_DATE_SPAN_DAYS = 80 * 365;
+
+    private BenchmarkData() {
+    }
+
+    static List<UserDto> users(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<UserDto> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(UserDto.builder()
+                    .email("user" + i + "@example.com")
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .birthDate(FIRST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATE_SPAN_DAYS)))
+                    .address(i + " Main Street")
+                    .phoneNumber("+1555" + (1000000 + i))
+                    .build());
+        }
+        return users;
+    }
+}
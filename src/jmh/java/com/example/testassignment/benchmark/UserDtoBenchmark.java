@@ -0,0 +1,58 @@
+package com.example.testassignment.benchmark;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.entity.UserEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between {@link UserDto} and {@link UserEntity}, and serialization of a page of users
+ * with the same Jackson configuration the REST controllers use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDtoBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private UserDto dto;
+
+    private UserEntity entity;
+
+    private List<UserDto> page;
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        page = BenchmarkData.users(pageSize);
+        dto = page.get(0);
+        entity = dto.toEntity();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public UserEntity toEntity() {
+        return dto.toEntity();
+    }
+
+    @Benchmark
+    public UserDto fromEntity() {
+        return UserDto.fromEntity(entity);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
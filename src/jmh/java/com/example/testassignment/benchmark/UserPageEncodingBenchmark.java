@@ -0,0 +1,75 @@
+package com.example.testassignment.benchmark;
+
+import com.example.testassignment.dto.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of a page of users in each encoding the REST API offers, with and without gzip.
+ * The {@code payloadBytes} secondary result is the size of one encoded page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPageEncodingBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    private String encoding;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private List<UserDto> page;
+
+    private ObjectMapper objectMapper;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        page = BenchmarkData.users(pageSize);
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        objectMapper = switch (encoding) {
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> builder.build();
+        };
+    }
+
+    @Benchmark
+    public byte[] serializePage(Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(pageSize * 128);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(out, page);
+        }
+        byte[] encoded = bytes.toByteArray();
+        payload.payloadBytes = encoded.length;
+        return encoded;
+    }
+}
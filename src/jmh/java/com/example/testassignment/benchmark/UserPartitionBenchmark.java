@@ -0,0 +1,121 @@
+package com.example.testassignment.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Birth date range query against PostgreSQL on an unpartitioned and a decade-partitioned copy of a generated
+ * {@code users} table, with the same indexes as the migrations. The tables are created in the {@code benchmark}
+ * schema of the database given by {@code -Dbenchmark.jdbc-url} (plus {@code benchmark.username} and
+ * {@code benchmark.password}) and are reused by later runs with the same row count, since generating
+ * 10 million rows takes minutes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserPartitionBenchmark {
+
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1940, 1, 1);
+
+    private static final int BIRTH_DATE_SPAN_DAYS = 65 * 365;
+
+    private static final int PAGE_SIZE = 500;
+
+    @Param({"10000000"})
+    private int rows;
+
+    @Param({"users_flat", "users_partitioned"})
+    private String table;
+
+    @Param({"30", "365"})
+    private int rangeDays;
+
+    private Connection connection;
+
+    private PreparedStatement rangeQuery;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/users_db"),
+                System.getProperty("benchmark.username", "postgres"),
+                System.getProperty("benchmark.password", ""));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS benchmark");
+            if (count(statement, table) != rows) {
+                generate(statement);
+            }
+        }
+        rangeQuery = connection.prepareStatement("SELECT id, email, first_name, last_name, birth_date, address, phone_number "
+                + "FROM benchmark." + table + " WHERE birth_date BETWEEN ? AND ? ORDER BY birth_date, id LIMIT " + PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void findByBirthDateBetween(Blackhole blackhole) throws SQLException {
+        LocalDate from = FIRST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATE_SPAN_DAYS - rangeDays));
+        rangeQuery.setDate(1, Date.valueOf(from));
+        rangeQuery.setDate(2, Date.valueOf(from.plusDays(rangeDays)));
+        try (ResultSet rs = rangeQuery.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getInt(1));
+                blackhole.consume(rs.getString(2));
+            }
+        }
+    }
+
+    private void generate(Statement statement) throws SQLException {
+        statement.execute("DROP TABLE IF EXISTS benchmark." + table);
+        String columns = "(id INTEGER NOT NULL, email VARCHAR(255) NOT NULL, first_name VARCHAR(255) NOT NULL, "
+                + "last_name VARCHAR(255) NOT NULL, birth_date DATE NOT NULL, address VARCHAR(255), phone_number VARCHAR(255)";
+        if (table.equals("users_flat")) {
+            statement.execute("CREATE TABLE benchmark.users_flat " + columns + ", PRIMARY KEY (id))");
+        } else {
+            statement.execute("CREATE TABLE benchmark.users_partitioned " + columns
+                    + ", PRIMARY KEY (id, birth_date)) PARTITION BY RANGE (birth_date)");
+            for (int decade = 1940; decade < 2010; decade += 10) {
+                statement.execute("CREATE TABLE benchmark.users_partitioned_p%d PARTITION OF benchmark.users_partitioned FOR VALUES FROM ('%d-01-01') TO ('%d-01-01')"
+                        .formatted(decade, decade, decade + 10));
+            }
+        }
+        statement.execute("INSERT INTO benchmark." + table + " SELECT g, 'user' || g || '@example.com', 'First' || g, "
+                + "'Last' || g, DATE '" + FIRST_BIRTH_DATE + "' + (hashint4(g) & 2147483647) % " + BIRTH_DATE_SPAN_DAYS + ", "
+                + "g || ' Main Street', '+1555' || (1000000 + g) FROM generate_series(1, " + rows + ") AS g");
+        statement.execute("CREATE INDEX ON benchmark." + table + " (birth_date, id)");
+        statement.execute("VACUUM ANALYZE benchmark." + table);
+    }
+
+    private static long count(Statement statement, String table) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace "
+                + "WHERE n.nspname = 'benchmark' AND c.relname = '" + table + "'")) {
+            rs.next();
+            if (rs.getLong(1) == 0) {
+                return -1;
+            }
+        }
+        try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM benchmark." + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.testassignment.benchmark;
+
+import com.example.testassignment.TestassignmentApplication;
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end range query through Spring Data JPA and Hibernate against an in-memory H2 database,
+ * so it measures the ORM and mapping overhead rather than PostgreSQL. The database is passed as command line
+ * arguments, since those take precedence over {@code application.properties}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRepositoryBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(1980, 1, 1);
+
+    private static final LocalDate TO = LocalDate.of(1981, 1, 1);
+
+    @Param({"100000"})
+    private int users;
+
+    @Param({"20", "500"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+
+    private UserRepository userRepository;
+
+    private PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TestassignmentApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        userRepository = context.getBean(UserRepository.class);
+        List<UserDto> dtos = BenchmarkData.users(users);
+        for (int i = 0; i < dtos.size(); i += 1000) {
+            userRepository.saveAll(dtos.subList(i, Math.min(i + 1000, dtos.size())).stream()
+                    .map(UserDto::toEntity)
+                    .toList());
+        }
+        pageRequest = PageRequest.of(0, pageSize, Sort.by("birthDate", "id"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserEntity> findByBirthDateBetween() {
+        return userRepository.findByBirthDateBetween(FROM, TO, pageRequest);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.testassignment.benchmark;
+
+import com.example.testassignment.service.UserRules;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The adult check that runs on every create and on every imported row, against the previous implementation
+ * that computed a {@link Period} from the current date on every call. Run with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserRulesBenchmark {
+
+    private final UserRules userRules = new UserRules(18);
+
+    private final LocalDate adultBirthDate = LocalDate.of(1990, 5, 15);
+
+    private final LocalDate minorBirthDate = LocalDate.now().minusYears(10);
+
+    @Benchmark
+    public boolean isAdult() {
+        return userRules.isAdult(adultBirthDate);
+    }
+
+    @Benchmark
+    public boolean isNotAdult() {
+        return userRules.isAdult(minorBirthDate);
+    }
+
+    @Benchmark
+    public boolean isAdultWithPeriod() {
+        return Period.between(adultBirthDate, LocalDate.now()).getYears() >= 18;
+    }
+}
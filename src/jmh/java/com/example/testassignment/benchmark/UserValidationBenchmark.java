@@ -0,0 +1,76 @@
+package com.example.testassignment.benchmark;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.service.UserRules;
+import com.example.testassignment.util.UserDtoValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of a request body, for a valid {@link UserDto} and for one that violates every constraint,
+ * with Bean Validation and with the hand-written {@link UserDtoValidator} the controllers use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private UserDtoValidator userDtoValidator;
+
+    private UserDto validUser;
+
+    private UserDto invalidUser;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        userDtoValidator = new UserDtoValidator(new UserRules(18), validator);
+        validUser = BenchmarkData.users(1).get(0);
+        invalidUser = UserDto.builder().email("not-an-email").build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDto>> validateValidUser() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDto>> validateInvalidUser() {
+        return validator.validate(invalidUser);
+    }
+
+    @Benchmark
+    public Errors validateValidUserCompiled() {
+        Errors errors = new BeanPropertyBindingResult(validUser, "userDto");
+        userDtoValidator.validate(validUser, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors validateInvalidUserCompiled() {
+        Errors errors = new BeanPropertyBindingResult(invalidUser, "userDto");
+        userDtoValidator.validate(invalidUser, errors);
+        return errors;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.testassignment.advice;
 
 import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.exception.EmailAlreadyExistsException;
+import com.example.testassignment.exception.InvalidCursorException;
+import com.example.testassignment.exception.InvalidFieldsException;
 import com.example.testassignment.exception.UserNotAdultException;
 import com.example.testassignment.exception.UserNotFoundException;
 import org.springframework.http.HttpStatus;
@@ -28,4 +31,22 @@ public class UserControllerAdvice {
         String response = e.getMessage();
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException e) {
+        String response = e.getMessage();
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<String> handleInvalidFieldsException(InvalidFieldsException e) {
+        String response = e.getMessage();
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(EmailAlreadyExistsException.class)
+    public ResponseEntity<String> handleEmailAlreadyExistsException(EmailAlreadyExistsException e) {
+        String response = e.getMessage();
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
 }
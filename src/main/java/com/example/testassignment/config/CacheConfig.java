@@ -0,0 +1,22 @@
+package com.example.testassignment.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Spring cache abstraction. Cache sizes and expiry are configured through
+ * {@code spring.cache.caffeine.spec}; hit and miss counts are published as {@code cache.gets} metrics.
+ * <p>
+ * Hibernate's second-level cache is separate and off by default. With {@code users.l2-cache.enabled=true},
+ * {@code UserEntity} and the {@value #USERS_BY_BIRTH_DATE_REGION} query region are cached in the JCache provider
+ * named by {@code users.l2-cache.provider}; Caffeine's regions are sized in {@code application.conf}. Region
+ * statistics are published as {@code hibernate.second.level.cache.*} and {@code hibernate.query.cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+
+    public static final String USERS_BY_BIRTH_DATE_REGION = "users-by-birth-date";
+}
@@ -0,0 +1,20 @@
+package com.example.testassignment.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns {@link io.micrometer.core.annotation.Timed @Timed} on beans into timers. HTTP request, repository
+ * invocation and connection pool timers are published by Spring Boot itself; histogram buckets for all of
+ * them are enabled through {@code management.metrics.distribution.percentiles-histogram.*}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
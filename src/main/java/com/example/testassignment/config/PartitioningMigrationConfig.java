@@ -0,0 +1,36 @@
+package com.example.testassignment.config;
+
+import org.flywaydb.core.api.Location;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Partitions {@code users} by birth decade (PostgreSQL only), enabled by {@code users.partitions.enabled}. The
+ * migration rewrites the whole table under an exclusive lock, so it is not part of the default locations: set the
+ * property for the start that should apply it, in a maintenance window, and keep it set afterwards, since Flyway
+ * refuses to start once an applied migration is no longer on its locations.
+ * <p>
+ * The migrations are applied out of order, because a database that is partitioned later has already applied the
+ * default migrations with higher versions.
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.partitions.enabled", havingValue = "true")
+public class PartitioningMigrationConfig {
+
+    static final String LOCATION = "classpath:db/partitioning/postgresql";
+
+    @Bean
+    public FlywayConfigurationCustomizer partitioningMigration() {
+        return configuration -> {
+            List<Location> locations = new ArrayList<>(Arrays.asList(configuration.getLocations()));
+            locations.add(new Location(LOCATION));
+            configuration.locations(locations.toArray(Location[]::new)).outOfOrder(true);
+        };
+    }
+}
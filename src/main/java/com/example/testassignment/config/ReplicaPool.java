@@ -0,0 +1,148 @@
+package com.example.testassignment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection pools of the read replicas. {@link #select()} picks a healthy replica by round robin or by the
+ * fewest active connections. A replica is ejected when getting a connection from it fails or when its periodic
+ * health check fails, and is taken back once a health check succeeds again.
+ */
+@Slf4j
+public class ReplicaPool implements AutoCloseable {
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS;
+
+        public static Selection parse(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final List<Replica> replicas;
+
+    private final Selection selection;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(List<HikariDataSource> dataSources, Selection selection) {
+        this.replicas = dataSources.stream().map(Replica::new).toList();
+        this.selection = selection;
+    }
+
+    /**
+     * Returns a healthy replica, or {@code null} if all replicas are ejected.
+     */
+    public Replica select() {
+        return switch (selection) {
+            case ROUND_ROBIN -> selectRoundRobin();
+            case LEAST_CONNECTIONS -> selectLeastConnections();
+        };
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(Replica::isHealthy).count();
+    }
+
+    @Scheduled(fixedDelayString = "${users.replicas.health-check-interval:5000}", timeUnit = TimeUnit.MILLISECONDS)
+    public void checkHealth() {
+        replicas.forEach(Replica::checkHealth);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private Replica selectRoundRobin() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica selectLeastConnections() {
+        Replica selected = null;
+        int fewest = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            int active = replica.activeConnections();
+            if (replica.isHealthy() && active < fewest) {
+                selected = replica;
+                fewest = active;
+            }
+        }
+        return selected;
+    }
+
+    public static final class Replica {
+
+        private final HikariDataSource dataSource;
+
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public String getName() {
+            return dataSource.getPoolName();
+        }
+
+        /**
+         * Returns a connection of this replica; ejects the replica if that fails.
+         */
+        public Connection getConnection() throws SQLException {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                eject(e);
+                throw e;
+            }
+        }
+
+        int activeConnections() {
+            return dataSource.getHikariPoolMXBean() == null ? 0 : dataSource.getHikariPoolMXBean().getActiveConnections();
+        }
+
+        void checkHealth() {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (!healthy) {
+                    log.info("Replica {} is healthy again", getName());
+                    healthy = true;
+                }
+            } catch (SQLException e) {
+                eject(e);
+            }
+        }
+
+        private void eject(SQLException cause) {
+            if (healthy) {
+                log.warn("Ejecting replica {}: {}", getName(), cause.getMessage());
+                healthy = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.testassignment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing, enabled by listing replica JDBC URLs in {@code users.replicas.urls}. Connections of
+ * {@code @Transactional(readOnly = true)} service methods go to a replica, all others to the primary configured by
+ * {@code spring.datasource.*}. Replicas use the primary's credentials and driver unless
+ * {@code users.replicas.username}/{@code password} are set.
+ */
+@Configuration
+@ConditionalOnProperty("users.replicas.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(DataSourceProperties properties,
+                                   @Value("${users.replicas.urls}") List<String> urls,
+                                   @Value("${users.replicas.username:${spring.datasource.username:}}") String username,
+                                   @Value("${users.replicas.password:${spring.datasource.password:}}") String password,
+                                   @Value("${users.replicas.maximum-pool-size:10}") int maximumPoolSize,
+                                   @Value("${users.replicas.connection-timeout:1s}") Duration connectionTimeout,
+                                   @Value("${users.replicas.selection:round-robin}") String selection) {
+        List<HikariDataSource> dataSources = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (i + 1));
+            dataSource.setJdbcUrl(urls.get(i).trim());
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            // A replica that cannot hand out a connection is ejected and the read falls back to the primary, so
+            // do not keep the request waiting for Hikari's default of 30 seconds first.
+            dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+            dataSource.setReadOnly(true);
+            // Let the application start while a replica is down; the health check ejects it.
+            dataSource.setInitializationFailTimeout(-1);
+            dataSources.add(dataSource);
+        }
+        return new ReplicaPool(dataSources, ReplicaPool.Selection.parse(selection));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaPool));
+    }
+
+    @Bean
+    @ConditionalOnProperty("users.replicas.read-your-writes-window")
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${users.replicas.read-your-writes-window}") Duration window, Clock clock) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(window, clock));
+    }
+}
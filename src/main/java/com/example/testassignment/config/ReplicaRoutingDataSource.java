@@ -0,0 +1,94 @@
+package com.example.testassignment.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends connections of read-only transactions to a replica from {@link ReplicaPool} and all others to the primary.
+ * The read-only flag of a transaction is only known once the transaction has started, so this data source must be
+ * wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which fetches the
+ * connection on the first statement. Falls back to the primary if no replica is healthy, and can be pinned to the
+ * primary for the current thread with {@link #pinToPrimary} to read a client's own writes.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = ThreadLocal.withInitial(() -> false);
+
+    private static final ThreadLocal<Boolean> READ_FROM_REPLICA = ThreadLocal.withInitial(() -> false);
+
+    private final DataSource primary;
+
+    private final ReplicaPool replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    /**
+     * Makes every connection of the current thread come from the primary, or lifts that restriction.
+     *
+     * @return the previous setting, to be restored when the caller is done
+     */
+    static boolean pinToPrimary(boolean primaryOnly) {
+        boolean previous = PRIMARY_ONLY.get();
+        if (primaryOnly) {
+            PRIMARY_ONLY.set(true);
+        } else {
+            PRIMARY_ONLY.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * Whether the current transaction reads from a replica. Rows read there may lag behind the primary, even
+     * behind invalidations this node has already received, so they must not be put into a cache.
+     */
+    public static boolean isReadingFromReplica() {
+        return READ_FROM_REPLICA.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routesToReplica()) {
+            ReplicaPool.Replica replica = replicas.select();
+            if (replica != null) {
+                try {
+                    Connection connection = replica.getConnection();
+                    markReadingFromReplica();
+                    return connection;
+                } catch (SQLException e) {
+                    // The replica is ejected; serve this transaction from the primary.
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private static void markReadingFromReplica() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || READ_FROM_REPLICA.get()) {
+            return;
+        }
+        READ_FROM_REPLICA.set(true);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                READ_FROM_REPLICA.remove();
+            }
+        });
+    }
+
+    private static boolean routesToReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PRIMARY_ONLY.get();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.testassignment.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs {@link org.springframework.scheduling.annotation.Scheduled @Scheduled} methods, such as the outbox relay.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
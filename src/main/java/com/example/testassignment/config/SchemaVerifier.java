@@ -0,0 +1,99 @@
+package com.example.testassignment.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Refuses to start the application against a {@code users} table that lacks the indexes the queries rely on,
+ * for example when a migration was skipped or a concurrent index build failed. Runs once all beans, including
+ * the Flyway migration, are initialized and before the web server accepts requests.
+ */
+@Component
+public class SchemaVerifier implements SmartInitializingSingleton {
+
+    static final String USERS_TABLE = "users";
+
+    static final List<String> REQUIRED_INDEXES = List.of("idx_users_birth_date_id", "uk_users_email_lower");
+
+    /**
+     * A partitioned {@code users} table cannot have a unique index on emails; it keeps them unique in this table.
+     */
+    static final String USER_EMAILS_TABLE = "user_emails";
+
+    /**
+     * Indexes that stand in for a required index of {@code users} when the table is partitioned.
+     */
+    private static final Map<String, String> PARTITIONED_ALTERNATIVES =
+            Map.of("uk_users_email_lower", "uk_user_emails_email_lower");
+
+    private static final String INVALID_INDEXES_SQL = """
+            SELECT c.relname
+            FROM pg_index i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            WHERE i.indrelid = 'users'::regclass AND NOT i.indisvalid""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaVerifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> problems = findProblems(REQUIRED_INDEXES);
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Schema of table '" + USERS_TABLE + "' is not usable: "
+                    + String.join("; ", problems) + ". Apply the pending migrations in db/migration.");
+        }
+    }
+
+    List<String> findProblems(List<String> requiredIndexes) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Set<String> indexes = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            addIndexes(connection, metaData, USERS_TABLE, indexes);
+            addIndexes(connection, metaData, USER_EMAILS_TABLE, indexes);
+            List<String> problems = new ArrayList<>();
+            for (String index : requiredIndexes) {
+                if (!indexes.contains(index) && !indexes.contains(PARTITIONED_ALTERNATIVES.getOrDefault(index, index))) {
+                    problems.add("missing index " + index);
+                }
+            }
+            if ("PostgreSQL".equals(metaData.getDatabaseProductName())) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(INVALID_INDEXES_SQL)) {
+                    while (rs.next()) {
+                        problems.add("invalid index " + rs.getString(1));
+                    }
+                }
+            }
+            return problems;
+        });
+    }
+
+    private static void addIndexes(Connection connection, DatabaseMetaData metaData, String table, Set<String> indexes)
+            throws SQLException {
+        String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, name, false, false)) {
+            while (rs.next()) {
+                if (rs.getString("INDEX_NAME") != null) {
+                    indexes.add(rs.getString("INDEX_NAME"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.testassignment.config;
+
+import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.exception.EmailAlreadyExistsException;
+import com.example.testassignment.exception.InvalidCursorException;
+import com.example.testassignment.exception.InvalidFieldsException;
+import com.example.testassignment.exception.UserNotAdultException;
+import com.example.testassignment.exception.UserNotFoundException;
+import com.example.testassignment.exception.UserQueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Domain metrics of the users API: how many rows range queries return ({@code users.range.rows}) and how
+ * often each domain exception is answered ({@code users.domain.exceptions}, tagged with the exception name).
+ */
+@Component
+public class UserMetrics {
+
+    private static final List<Class<? extends RuntimeException>> DOMAIN_EXCEPTIONS = List.of(
+            UserNotAdultException.class, UserNotFoundException.class, BirthDateRangeException.class,
+            InvalidCursorException.class, EmailAlreadyExistsException.class, InvalidFieldsException.class,
+            UserQueueFullException.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final DistributionSummary rangeRows;
+
+    public UserMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.rangeRows = DistributionSummary.builder("users.range.rows")
+                .description("Rows returned by birth date range queries")
+                .baseUnit("rows")
+                .register(meterRegistry);
+        // Registered up front so that every series is scraped, with 0 until the first occurrence.
+        DOMAIN_EXCEPTIONS.forEach(type -> exceptionCounter(type.getSimpleName()));
+    }
+
+    public <T> List<T> recordRangeRows(List<T> rows) {
+        rangeRows.record(rows.size());
+        return rows;
+    }
+
+    public void countException(Exception e) {
+        exceptionCounter(e.getClass().getSimpleName()).increment();
+    }
+
+    private Counter exceptionCounter(String exception) {
+        return Counter.builder("users.domain.exceptions")
+                .description("Domain exceptions answered with an error response")
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.testassignment.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistogramBucketDto {
+    private String label;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+    private Long count;
+}
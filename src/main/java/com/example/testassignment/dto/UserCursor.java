@@ -0,0 +1,42 @@
+package com.example.testassignment.dto;
+
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page, ordered by {@code (birthDate, id)}.
+ * Clients receive it as an opaque token and send it back to fetch the next page.
+ */
+public record UserCursor(LocalDate birthDate, Integer id) {
+
+    private static final char SEPARATOR = ':';
+
+    public static UserCursor of(UserEntity userEntity) {
+        return new UserCursor(userEntity.getBirthDate(), userEntity.getId());
+    }
+
+    public String encode() {
+        String raw = birthDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidCursorException("Invalid cursor.");
+            }
+            LocalDate birthDate = LocalDate.parse(raw.substring(0, separatorIndex));
+            Integer id = Integer.valueOf(raw.substring(separatorIndex + 1));
+            return new UserCursor(birthDate, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor.");
+        }
+    }
+}
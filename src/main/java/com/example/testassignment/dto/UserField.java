@@ -0,0 +1,62 @@
+package com.example.testassignment.dto;
+
+import com.example.testassignment.exception.InvalidFieldsException;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * User attributes a client can select with the {@code fields} request parameter. The id is always selected.
+ */
+public enum UserField {
+
+    ID("id", (dto, value) -> dto.setId((Integer) value)),
+    EMAIL("email", (dto, value) -> dto.setEmail((String) value)),
+    FIRST_NAME("firstName", (dto, value) -> dto.setFirstName((String) value)),
+    LAST_NAME("lastName", (dto, value) -> dto.setLastName((String) value)),
+    BIRTH_DATE("birthDate", (dto, value) -> dto.setBirthDate((LocalDate) value)),
+    ADDRESS("address", (dto, value) -> dto.setAddress((String) value)),
+    PHONE_NUMBER("phoneNumber", (dto, value) -> dto.setPhoneNumber((String) value));
+
+    private final String attribute;
+
+    private final BiConsumer<UserDto, Object> setter;
+
+    UserField(String attribute, BiConsumer<UserDto, Object> setter) {
+        this.attribute = attribute;
+        this.setter = setter;
+    }
+
+    /**
+     * Name of the attribute in {@link com.example.testassignment.entity.UserEntity} and of the property in {@link UserDto}.
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public void set(UserDto dto, Object value) {
+        setter.accept(dto, value);
+    }
+
+    /**
+     * Parses a comma-separated list of {@link UserDto} property names, e.g. {@code firstName,lastName}.
+     */
+    public static Set<UserField> parse(String fields) {
+        Set<UserField> parsed = EnumSet.of(ID);
+        for (String field : fields.split(",")) {
+            parsed.add(byAttribute(field.trim()));
+        }
+        return parsed;
+    }
+
+    private static UserField byAttribute(String attribute) {
+        for (UserField field : values()) {
+            if (field.attribute.equals(attribute)) {
+                return field;
+            }
+        }
+        throw new InvalidFieldsException("Unknown field '" + attribute + "'.");
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.testassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportErrorDto {
+    private Integer row;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.example.testassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResultDto {
+    private Integer received;
+    private Integer imported;
+    private List<UserImportErrorDto> errors;
+}
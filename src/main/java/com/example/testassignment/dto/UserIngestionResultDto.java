@@ -0,0 +1,23 @@
+package com.example.testassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserIngestionResultDto {
+    private Long received;
+    private Long accepted;
+    private Long rejected;
+    private Map<String, Long> rejectionReasons;
+    private Long duplicates;
+    private Long merged;
+    private Long durationMillis;
+    private Long rowsPerSecond;
+}
@@ -0,0 +1,48 @@
+package com.example.testassignment.dto;
+
+import com.example.testassignment.entity.UserEntity;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Past;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Partial update of a user. Only non-null fields are written; omitted fields keep their current value.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPatchDto {
+
+    @Email(message = "Invalid email address")
+    private String email;
+
+    private String firstName;
+
+    private String lastName;
+
+    @Past(message = "Birth date must be in the past")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate birthDate;
+    private String address;
+    private String phoneNumber;
+
+    public UserEntity toEntity() {
+        return UserEntity.builder()
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .birthDate(birthDate)
+                .address(address)
+                .phoneNumber(phoneNumber)
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.testassignment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserWriteStatusDto {
+
+    public enum Status {
+        PENDING,
+        PERSISTED,
+        FAILED,
+        NOT_FOUND
+    }
+
+    private Integer id;
+    private Status status;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.example.testassignment.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes relayed changes as {@link UserChangeMessage} application events, for in-process
+ * {@link org.springframework.context.event.EventListener @EventListener}s.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventUserChangeSink implements UserChangeSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<UserChangeMessage> messages) {
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.testassignment.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed changes to {@code users.outbox.file-sink.path} as newline-delimited JSON, one message per line.
+ * Each batch is forced to disk before the relay removes it from the outbox.
+ */
+@Component
+@ConditionalOnProperty("users.outbox.file-sink.path")
+public class FileUserChangeSink implements UserChangeSink {
+
+    private final ObjectMapper objectMapper;
+
+    private final FileChannel channel;
+
+    public FileUserChangeSink(ObjectMapper objectMapper,
+                              @Value("${users.outbox.file-sink.path}") Path path) throws IOException {
+        this.objectMapper = objectMapper;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<UserChangeMessage> messages) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream(messages.size() * 128);
+            for (UserChangeMessage message : messages) {
+                lines.write(objectMapper.writeValueAsBytes(message));
+                lines.write('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+}
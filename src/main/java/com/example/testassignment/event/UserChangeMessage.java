@@ -0,0 +1,13 @@
+package com.example.testassignment.event;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A {@link UserChangedEvent} as relayed from the {@code user_outbox} table. {@code id} increases in the order in
+ * which the changes were recorded; a message may be delivered more than once, so consumers should skip ids they
+ * have already seen.
+ */
+public record UserChangeMessage(long id, UserChangedEvent.ChangeType type, Integer userId, LocalDate birthDate,
+                                LocalDate previousBirthDate, Instant createdAt) {
+}
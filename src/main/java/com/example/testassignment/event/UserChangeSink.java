@@ -0,0 +1,12 @@
+package com.example.testassignment.event;
+
+import java.util.List;
+
+/**
+ * Destination of relayed user changes. Every {@code UserChangeSink} bean receives each batch, in outbox order.
+ * A sink that throws makes the relay retry the whole batch later, including for the sinks that already received it.
+ */
+public interface UserChangeSink {
+
+    void publish(List<UserChangeMessage> messages);
+}
@@ -0,0 +1,30 @@
+package com.example.testassignment.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published by the service layer after a single user is created, updated or deleted.
+ * {@code birthDate} is the birth date after the change; it is {@code null} for deletions and for
+ * partial updates that left the birth date untouched. {@code previousBirthDate} is the birth date before
+ * the change; it is {@code null} for creations and for partial updates that left the birth date untouched.
+ */
+public record UserChangedEvent(ChangeType type, Integer id, LocalDate birthDate, LocalDate previousBirthDate) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static UserChangedEvent created(Integer id, LocalDate birthDate) {
+        return new UserChangedEvent(ChangeType.CREATED, id, birthDate, null);
+    }
+
+    public static UserChangedEvent updated(Integer id, LocalDate previousBirthDate, LocalDate birthDate) {
+        return new UserChangedEvent(ChangeType.UPDATED, id, birthDate, previousBirthDate);
+    }
+
+    public static UserChangedEvent deleted(Integer id, LocalDate previousBirthDate) {
+        return new UserChangedEvent(ChangeType.DELETED, id, null, previousBirthDate);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.testassignment.event;
+
+/**
+ * Published after a bulk import or ingestion wrote an unknown set of users, so that derived
+ * state has to be invalidated or rebuilt as a whole rather than per user.
+ */
+public record UsersBulkLoadedEvent(long rows) {
+}
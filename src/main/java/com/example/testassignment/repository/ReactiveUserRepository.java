@@ -0,0 +1,150 @@
+package com.example.testassignment.repository;
+
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.OptionalInt;
+
+/**
+ * Non-blocking access to the {@code users} table for the reactive API. Works on the same schema and
+ * identifier sequence as {@link UserRepository}, so both stacks can run against one database.
+ * <p>
+ * The reactive API runs without transactions, so every write appends its change to {@code user_outbox} in the same
+ * statement, which records the change if and only if the write itself succeeds.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+    private static final String COLUMNS = "id, email, first_name, last_name, birth_date, address, phone_number";
+
+    private final DatabaseClient databaseClient;
+
+    private final SequenceBlock ids = new SequenceBlock(UserEntity.ID_ALLOCATION_SIZE);
+
+    private final int fetchSize;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient,
+                                  @Value("${users.reactive.fetch-size:500}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<UserEntity> insert(UserEntity user) {
+        return nextId()
+                .flatMap(id -> bindColumns(databaseClient.sql("WITH inserted AS (INSERT INTO users (" + COLUMNS + ") "
+                                + "VALUES (:id, :email, :firstName, :lastName, :birthDate, :address, :phoneNumber) "
+                                + "RETURNING id, birth_date) "
+                                + "INSERT INTO user_outbox (change_type, user_id, birth_date) "
+                                + "SELECT :changeType, id, birth_date FROM inserted"), id, user)
+                        .bind("changeType", UserChangedEvent.ChangeType.CREATED.name())
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(withId(user, id)));
+    }
+
+    /**
+     * Overwrites every column of an existing user.
+     *
+     * @return the birth date the user had before the update, empty if no user has the given id
+     */
+    public Mono<LocalDate> update(UserEntity user) {
+        return bindColumns(databaseClient.sql("WITH updated AS (UPDATE users u SET email = :email, "
+                        + "first_name = :firstName, last_name = :lastName, birth_date = :birthDate, "
+                        + "address = :address, phone_number = :phoneNumber "
+                        + "FROM (SELECT id, birth_date FROM users WHERE id = :id FOR UPDATE) previous "
+                        + "WHERE u.id = previous.id "
+                        + "RETURNING u.id, u.birth_date, previous.birth_date AS previous_birth_date), "
+                        + "appended AS (INSERT INTO user_outbox (change_type, user_id, birth_date, previous_birth_date) "
+                        + "SELECT :changeType, id, birth_date, previous_birth_date FROM updated) "
+                        + "SELECT previous_birth_date FROM updated"), user.getId(), user)
+                .bind("changeType", UserChangedEvent.ChangeType.UPDATED.name())
+                .map(row -> row.get(0, LocalDate.class))
+                .one();
+    }
+
+    /**
+     * @return the birth date of the deleted user, empty if no user has the given id
+     */
+    public Mono<LocalDate> deleteById(Integer id) {
+        return databaseClient.sql("WITH deleted AS (DELETE FROM users WHERE id = :id RETURNING id, birth_date), "
+                        + "appended AS (INSERT INTO user_outbox (change_type, user_id, previous_birth_date) "
+                        + "SELECT :changeType, id, birth_date FROM deleted) "
+                        + "SELECT birth_date FROM deleted")
+                .bind("id", id)
+                .bind("changeType", UserChangedEvent.ChangeType.DELETED.name())
+                .map(row -> row.get(0, LocalDate.class))
+                .one();
+    }
+
+    /**
+     * Streams users born in the given range in {@code (birth_date, id)} order. Rows are pulled from the
+     * database in batches of {@code users.reactive.fetch-size} as the subscriber requests them.
+     */
+    public Flux<UserEntity> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users "
+                        + "WHERE birth_date BETWEEN :from AND :to ORDER BY birth_date, id")
+                .bind("from", from)
+                .bind("to", to)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveUserRepository::toEntity)
+                .all();
+    }
+
+    /**
+     * Takes the next identifier of the current block, reserving a new block with one {@code nextval}
+     * call once it is used up.
+     */
+    private Mono<Integer> nextId() {
+        return Mono.defer(() -> {
+            OptionalInt next = ids.tryNext();
+            if (next.isPresent()) {
+                return Mono.just(next.getAsInt());
+            }
+            return databaseClient.sql("SELECT nextval('users_id_seq')")
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+                    .map(ids::refill);
+        });
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindColumns(DatabaseClient.GenericExecuteSpec spec,
+                                                                 Integer id, UserEntity user) {
+        spec = spec.bind("id", id)
+                .bind("email", user.getEmail())
+                .bind("firstName", user.getFirstName())
+                .bind("lastName", user.getLastName())
+                .bind("birthDate", user.getBirthDate());
+        spec = user.getAddress() == null
+                ? spec.bindNull("address", String.class)
+                : spec.bind("address", user.getAddress());
+        return user.getPhoneNumber() == null
+                ? spec.bindNull("phoneNumber", String.class)
+                : spec.bind("phoneNumber", user.getPhoneNumber());
+    }
+
+    private static UserEntity withId(UserEntity user, Integer id) {
+        user.setId(id);
+        return user;
+    }
+
+    private static UserEntity toEntity(Readable row) {
+        return UserEntity.builder()
+                .id(row.get("id", Integer.class))
+                .email(row.get("email", String.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .birthDate(row.get("birth_date", LocalDate.class))
+                .address(row.get("address", String.class))
+                .phoneNumber(row.get("phone_number", String.class))
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.testassignment.repository;
+
+import java.util.OptionalInt;
+
+/**
+ * Hands out identifiers from a block reserved by one {@code nextval} call on a sequence whose increment
+ * equals the block size. Uses the same convention as Hibernate's pooled optimizer, where the value returned
+ * by the sequence is the highest identifier of the block, so blocks never overlap with the ones Hibernate uses.
+ */
+public class SequenceBlock {
+
+    private final int size;
+
+    private long next = 1;
+
+    private long hi = 0;
+
+    public SequenceBlock(int size) {
+        this.size = size;
+    }
+
+    public synchronized OptionalInt tryNext() {
+        if (next > hi) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(Math.toIntExact(next++));
+    }
+
+    /**
+     * Starts a new block ending at {@code hiValue} and returns its first identifier. A fresh sequence first returns
+     * its initial value {@code 1}, which Hibernate's pooled optimizer treats as the start of a block, not its end.
+     * Here too a block never starts below {@code 1}, so the first block of a fresh sequence holds only the
+     * identifiers up to {@code hiValue}.
+     */
+    public synchronized int refill(long hiValue) {
+        hi = hiValue;
+        next = Math.max(1, hiValue - size + 1);
+        return Math.toIntExact(next++);
+    }
+}
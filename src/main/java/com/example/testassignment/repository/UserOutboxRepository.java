@@ -0,0 +1,80 @@
+package com.example.testassignment.repository;
+
+import com.example.testassignment.event.UserChangeMessage;
+import com.example.testassignment.event.UserChangedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Access to the {@code user_outbox} table. Changes are appended in the transaction that makes them, so a change
+ * is recorded if and only if it is committed.
+ */
+@Repository
+public class UserOutboxRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_outbox (change_type, user_id, birth_date, previous_birth_date) VALUES (?, ?, ?, ?)";
+
+    /**
+     * Locks the oldest messages; other relay instances skip locked rows instead of waiting for them.
+     */
+    private static final String LOCK_BATCH_SQL = """
+            SELECT id, change_type, user_id, birth_date, previous_birth_date, created_at
+            FROM user_outbox
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED""";
+
+    private static final String DELETE_SQL = "DELETE FROM user_outbox WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UserChangedEvent event) {
+        jdbcTemplate.update(INSERT_SQL, ps -> setValues(ps, event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<UserChangedEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), UserOutboxRepository::setValues);
+    }
+
+    /**
+     * Returns up to {@code limit} of the oldest messages, locked until the end of the current transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<UserChangeMessage> lockBatch(int limit) {
+        return jdbcTemplate.query(LOCK_BATCH_SQL, (rs, rowNum) -> new UserChangeMessage(
+                rs.getLong(1),
+                UserChangedEvent.ChangeType.valueOf(rs.getString(2)),
+                rs.getInt(3),
+                rs.getObject(4, LocalDate.class),
+                rs.getObject(5, LocalDate.class),
+                rs.getObject(6, OffsetDateTime.class).toInstant()), limit);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(List<UserChangeMessage> messages) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, messages, messages.size(), (ps, message) -> ps.setLong(1, message.id()));
+    }
+
+    private static void setValues(PreparedStatement ps, UserChangedEvent event) throws SQLException {
+        ps.setString(1, event.type().name());
+        ps.setInt(2, event.id());
+        ps.setDate(3, event.birthDate() == null ? null : Date.valueOf(event.birthDate()));
+        ps.setDate(4, event.previousBirthDate() == null ? null : Date.valueOf(event.previousBirthDate()));
+    }
+}
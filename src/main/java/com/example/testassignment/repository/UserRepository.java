@@ -1,14 +1,69 @@
 package com.example.testassignment.repository;
 
+import com.example.testassignment.config.CacheConfig;
 import com.example.testassignment.entity.UserEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<UserEntity, Integer> {
+public interface UserRepository extends JpaRepository<UserEntity, Integer>, UserRepositoryCustom {
 
+    /**
+     * Results are kept in the query cache when the second-level cache is enabled; Hibernate drops them on
+     * any write to {@code users} it performs itself.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.USERS_BY_BIRTH_DATE_REGION)
+    })
     List<UserEntity> findByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+
+    /**
+     * Loads users by id, restricted to a birth date range so that a partitioned table is only searched in the
+     * partitions of that range.
+     */
+    List<UserEntity> findByIdInAndBirthDateBetween(Collection<Integer> ids, LocalDate from, LocalDate to);
+
+    /**
+     * Case-insensitive email lookup, written against {@code lower(email)} so that it is answered by the
+     * {@code uk_users_email_lower} index (or {@code idx_users_email_lower} once the table is partitioned).
+     */
+    @Query("select case when count(u) > 0 then true else false end from UserEntity u where lower(u.email) = lower(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+
+    /**
+     * Seek query for keyset pagination: returns users born up to {@code to} that come strictly
+     * after {@code (lastBirthDate, lastId)} in {@code (birthDate, id)} order. The redundant
+     * {@code birthDate >= :lastBirthDate} bound lets the database start an index range scan on
+     * {@code idx_users_birth_date_id} instead of filtering from the beginning of the range.
+     */
+    @Query("select u from UserEntity u " +
+            "where u.birthDate >= :lastBirthDate and u.birthDate <= :to " +
+            "and (u.birthDate > :lastBirthDate or u.id > :lastId) " +
+            "order by u.birthDate asc, u.id asc")
+    List<UserEntity> findByBirthDateRangeAfter(@Param("to") LocalDate to,
+                                               @Param("lastBirthDate") LocalDate lastBirthDate,
+                                               @Param("lastId") Integer lastId,
+                                               Pageable pageable);
+
+    /**
+     * Forward-only cursor over a birth date range. Must be consumed inside a transaction and closed
+     * afterwards; the PostgreSQL driver only honours the fetch size when auto-commit is off.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from UserEntity u where u.birthDate between :from and :to order by u.birthDate asc, u.id asc")
+    Stream<UserEntity> streamByBirthDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -0,0 +1,51 @@
+package com.example.testassignment.repository;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserField;
+import com.example.testassignment.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Updates only the non-null fields of {@code patch} in a single {@code UPDATE} whose
+     * {@code SET} clause is built for exactly those fields.
+     *
+     * @return the number of matching rows, {@code 0} if no user has the given id
+     */
+    int patchById(Integer id, UserEntity patch);
+
+    /**
+     * Overwrites every column of an existing user and returns the birth date it had before. On PostgreSQL the
+     * row is locked, read and updated by a single {@code UPDATE ... RETURNING}; other databases lock the row with
+     * {@code SELECT ... FOR UPDATE} first.
+     *
+     * @return the previous birth date, empty if no user has the given id
+     */
+    Optional<LocalDate> updateReturningPreviousBirthDate(UserEntity user);
+
+    /**
+     * Like {@link #patchById}, returning the birth date the user had before the patch.
+     *
+     * @return the previous birth date, empty if no user has the given id
+     */
+    Optional<LocalDate> patchReturningPreviousBirthDate(Integer id, UserEntity patch);
+
+    /**
+     * Deletes a user and returns its birth date, with {@code DELETE ... RETURNING} on PostgreSQL.
+     *
+     * @return the birth date of the deleted user, empty if no user has the given id
+     */
+    Optional<LocalDate> deleteReturningBirthDate(Integer id);
+
+    /**
+     * Users born between {@code from} and {@code to} with only the given {@code fields} selected from the
+     * database and set in the returned DTOs; all other properties are {@code null}.
+     */
+    List<UserDto> findFieldsByBirthDateBetween(LocalDate from, LocalDate to, Set<UserField> fields, Pageable pageable);
+}
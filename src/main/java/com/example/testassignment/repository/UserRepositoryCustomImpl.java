@@ -0,0 +1,246 @@
+package com.example.testassignment.repository;
+
+import com.example.testassignment.config.CacheConfig;
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserField;
+import com.example.testassignment.entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "email", "email",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "birthDate", "birth_date",
+            "address", "address",
+            "phoneNumber", "phone_number");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgreSql;
+
+    @Override
+    @Transactional
+    public int patchById(Integer id, UserEntity patch) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<UserEntity> update = criteriaBuilder.createCriteriaUpdate(UserEntity.class);
+        Root<UserEntity> root = update.from(UserEntity.class);
+
+        boolean hasChanges = set(update, root, "email", patch.getEmail());
+        hasChanges |= set(update, root, "firstName", patch.getFirstName());
+        hasChanges |= set(update, root, "lastName", patch.getLastName());
+        hasChanges |= set(update, root, "birthDate", patch.getBirthDate());
+        hasChanges |= set(update, root, "address", patch.getAddress());
+        hasChanges |= set(update, root, "phoneNumber", patch.getPhoneNumber());
+
+        if (!hasChanges) {
+            return entityManager.createQuery("select count(u) from UserEntity u where u.id = :id", Long.class)
+                    .setParameter("id", id)
+                    .getSingleResult()
+                    .intValue();
+        }
+        update.where(criteriaBuilder.equal(root.get("id"), id));
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public Optional<LocalDate> updateReturningPreviousBirthDate(UserEntity user) {
+        if (!isPostgreSql()) {
+            Optional<LocalDate> previousBirthDate = lockBirthDate(user.getId());
+            if (previousBirthDate.isPresent()) {
+                entityManager.flush();
+                entityManager.createQuery("update UserEntity u set u.email = :email, u.firstName = :firstName, " +
+                                "u.lastName = :lastName, u.birthDate = :birthDate, u.address = :address, " +
+                                "u.phoneNumber = :phoneNumber where u.id = :id")
+                        .setParameter("email", user.getEmail())
+                        .setParameter("firstName", user.getFirstName())
+                        .setParameter("lastName", user.getLastName())
+                        .setParameter("birthDate", user.getBirthDate())
+                        .setParameter("address", user.getAddress())
+                        .setParameter("phoneNumber", user.getPhoneNumber())
+                        .setParameter("id", user.getId())
+                        .executeUpdate();
+                entityManager.clear();
+            }
+            return previousBirthDate;
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("email", user.getEmail());
+        values.put("firstName", user.getFirstName());
+        values.put("lastName", user.getLastName());
+        values.put("birthDate", user.getBirthDate());
+        values.put("address", user.getAddress());
+        values.put("phoneNumber", user.getPhoneNumber());
+        return updateReturningPreviousBirthDate(user.getId(), values);
+    }
+
+    @Override
+    @Transactional
+    public Optional<LocalDate> patchReturningPreviousBirthDate(Integer id, UserEntity patch) {
+        if (!isPostgreSql()) {
+            Optional<LocalDate> previousBirthDate = lockBirthDate(id);
+            if (previousBirthDate.isPresent()) {
+                patchById(id, patch);
+            }
+            return previousBirthDate;
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        putIfNotNull(values, "email", patch.getEmail());
+        putIfNotNull(values, "firstName", patch.getFirstName());
+        putIfNotNull(values, "lastName", patch.getLastName());
+        putIfNotNull(values, "birthDate", patch.getBirthDate());
+        putIfNotNull(values, "address", patch.getAddress());
+        putIfNotNull(values, "phoneNumber", patch.getPhoneNumber());
+        if (values.isEmpty()) {
+            return entityManager.createQuery("select u.birthDate from UserEntity u where u.id = :id", LocalDate.class)
+                    .setParameter("id", id)
+                    .getResultStream()
+                    .findFirst();
+        }
+        return updateReturningPreviousBirthDate(id, values);
+    }
+
+    @Override
+    @Transactional
+    public Optional<LocalDate> deleteReturningBirthDate(Integer id) {
+        if (!isPostgreSql()) {
+            Optional<LocalDate> birthDate = lockBirthDate(id);
+            if (birthDate.isPresent()) {
+                entityManager.flush();
+                entityManager.createQuery("delete from UserEntity u where u.id = :id")
+                        .setParameter("id", id)
+                        .executeUpdate();
+                entityManager.clear();
+            }
+            return birthDate;
+        }
+        return returningBirthDate(entityManager.createNativeQuery(
+                        "DELETE FROM users WHERE id = :id RETURNING birth_date")
+                .setParameter("id", id), id);
+    }
+
+    /**
+     * Sets the given columns and returns the previous birth date in one statement: the row is locked and its
+     * old values read by the sub-select, which {@code RETURNING} can refer to, unlike the updated row itself.
+     */
+    private Optional<LocalDate> updateReturningPreviousBirthDate(Integer id, Map<String, Object> values) {
+        StringJoiner assignments = new StringJoiner(", ");
+        values.keySet().forEach(attribute -> assignments.add(COLUMNS.get(attribute) + " = :" + attribute));
+        Query query = entityManager.createNativeQuery("UPDATE users u SET " + assignments + " " +
+                "FROM (SELECT id, birth_date FROM users WHERE id = :id FOR UPDATE) previous " +
+                "WHERE u.id = previous.id RETURNING previous.birth_date AS birth_date");
+        values.forEach(query::setParameter);
+        query.setParameter("id", id);
+        return returningBirthDate(query, id);
+    }
+
+    /**
+     * Runs a native write with {@code RETURNING birth_date}. Hibernate takes it for a query, so it neither clears
+     * the persistence context nor invalidates cached copies of the user as it does for JPQL updates; both are
+     * done here.
+     */
+    private Optional<LocalDate> returningBirthDate(Query query, Integer id) {
+        entityManager.flush();
+        @SuppressWarnings("unchecked")
+        List<LocalDate> birthDates = query.unwrap(NativeQuery.class)
+                .addScalar("birth_date", LocalDate.class)
+                .getResultList();
+        entityManager.clear();
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(UserEntity.class, id);
+        cache.evictQueryRegion(CacheConfig.USERS_BY_BIRTH_DATE_REGION);
+        return birthDates.stream().findFirst();
+    }
+
+    private Optional<LocalDate> lockBirthDate(Integer id) {
+        return entityManager.createQuery("select u.birthDate from UserEntity u where u.id = :id", LocalDate.class)
+                .setParameter("id", id)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .findFirst();
+    }
+
+    private boolean isPostgreSql() {
+        Boolean result = postgreSql;
+        if (result == null) {
+            result = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            postgreSql = result;
+        }
+        return result;
+    }
+
+    private static void putIfNotNull(Map<String, Object> values, String attribute, Object value) {
+        if (value != null) {
+            values.put(attribute, value);
+        }
+    }
+
+    @Override
+    public List<UserDto> findFieldsByBirthDateBetween(LocalDate from, LocalDate to, Set<UserField> fields, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<UserEntity> root = query.from(UserEntity.class);
+        List<UserField> selected = List.copyOf(fields);
+
+        query.multiselect(selected.stream()
+                        .<Selection<?>>map(field -> root.get(field.getAttribute()))
+                        .toList())
+                .where(criteriaBuilder.between(root.get("birthDate"), from, to))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()))
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList().stream()
+                .map(tuple -> {
+                    UserDto dto = new UserDto();
+                    for (int i = 0; i < selected.size(); i++) {
+                        selected.get(i).set(dto, tuple.get(i));
+                    }
+                    return dto;
+                })
+                .toList();
+    }
+
+    private static boolean set(CriteriaUpdate<UserEntity> update, Root<UserEntity> root, String attribute, Object value) {
+        if (value == null) {
+            return false;
+        }
+        update.set(root.get(attribute), value);
+        return true;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.testassignment.rest;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserImportErrorDto;
+import com.example.testassignment.dto.UserImportResultDto;
+import com.example.testassignment.entity.UserEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Reads an NDJSON body one line at a time. A line that is not a valid user document is recorded as an error of
+ * its row and skipped, so that it does not abort the rows after it while the rows before it are already imported.
+ * Rows are zero-based and count non-blank lines, like the positions {@code importUsers} reports.
+ */
+class NdjsonUserReader implements Iterator<UserEntity> {
+
+    private final ObjectReader reader;
+
+    private final BufferedReader lines;
+
+    private final List<UserImportErrorDto> parseErrors = new ArrayList<>();
+
+    private UserEntity next;
+
+    private int row;
+
+    NdjsonUserReader(ObjectReader reader, BufferedReader lines) {
+        this.reader = reader;
+        this.lines = lines;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            String line = readLine();
+            if (line == null) {
+                return false;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                next = reader.<UserDto>readValue(line).toEntity();
+            } catch (JsonProcessingException e) {
+                parseErrors.add(new UserImportErrorDto(row, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+            row++;
+        }
+        return true;
+    }
+
+    @Override
+    public UserEntity next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        UserEntity user = next;
+        next = null;
+        return user;
+    }
+
+    /**
+     * Adds the parse errors to the result of importing the parsed users, whose rows it maps back to rows of
+     * the body.
+     */
+    UserImportResultDto merge(UserImportResultDto result) {
+        List<UserImportErrorDto> errors = Stream.concat(
+                        result.getErrors().stream().map(error -> new UserImportErrorDto(toRow(error.getRow()), error.getMessage())),
+                        parseErrors.stream())
+                .sorted(Comparator.comparing(UserImportErrorDto::getRow))
+                .toList();
+        return UserImportResultDto.builder()
+                .received(result.getReceived() + parseErrors.size())
+                .imported(result.getImported())
+                .errors(errors)
+                .build();
+    }
+
+    private int toRow(int parsedRow) {
+        int row = parsedRow;
+        for (UserImportErrorDto parseError : parseErrors) {
+            if (parseError.getRow() > row) {
+                break;
+            }
+            row++;
+        }
+        return row;
+    }
+
+    private String readLine() {
+        try {
+            return lines.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.testassignment.rest;
+
+import com.example.testassignment.dto.UserIngestionResultDto;
+import com.example.testassignment.service.UserIngestionService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Bulk loading endpoint for very large partner files. CSV input must start with a header row naming
+ * the {@code UserDto} properties ({@code email,firstName,lastName,birthDate,address,phoneNumber}).
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/users/ingest")
+@RequiredArgsConstructor(onConstructor_ = {@Autowired})
+public class UserIngestionRestControllerV1 {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final UserIngestionService userIngestionService;
+
+    @PostMapping(consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<?> ingestCsv(HttpServletRequest request) throws IOException {
+            UserIngestionResultDto result = userIngestionService.ingest(request.getInputStream(), UserIngestionService.Format.CSV);
+            return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> ingestNdjson(HttpServletRequest request) throws IOException {
+            UserIngestionResultDto result = userIngestionService.ingest(request.getInputStream(), UserIngestionService.Format.NDJSON);
+            return ResponseEntity.ok(result);
+    }
+}
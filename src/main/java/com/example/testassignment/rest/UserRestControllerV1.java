@@ -1,39 +1,133 @@
 package com.example.testassignment.rest;
 
+import com.example.testassignment.config.UserMetrics;
 import com.example.testassignment.dto.ErrorDto;
+import com.example.testassignment.dto.UserCursor;
 import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserField;
+import com.example.testassignment.dto.UserImportResultDto;
+import com.example.testassignment.dto.UserPageDto;
+import com.example.testassignment.dto.UserPatchDto;
+import com.example.testassignment.dto.UserWriteStatusDto;
 import com.example.testassignment.entity.UserEntity;
 import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.exception.EmailAlreadyExistsException;
+import com.example.testassignment.exception.InvalidCursorException;
+import com.example.testassignment.exception.InvalidFieldsException;
 import com.example.testassignment.exception.UserNotAdultException;
 import com.example.testassignment.exception.UserNotFoundException;
+import com.example.testassignment.exception.UserQueueFullException;
+import com.example.testassignment.service.UserRangePage;
 import com.example.testassignment.service.UserService;
+import com.example.testassignment.service.UserWriteBehindService;
+import com.example.testassignment.util.UserDtoValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.PastOrPresent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor(onConstructor_ = {@Autowired})
 public class UserRestControllerV1 {
 
+    private static final HeaderContentNegotiationStrategy ACCEPT_HEADER = new HeaderContentNegotiationStrategy();
+
+    /**
+     * Encodings of a users page in the order the message converters offer them.
+     */
+    private static final List<MediaType> PAGE_ENCODINGS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
     private final UserService userService;
 
+    private final UserWriteBehindService userWriteBehindService;
+
+    private final UserMetrics userMetrics;
+
+    private final UserDtoValidator userDtoValidator;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Validates {@link UserDto} request bodies with {@link UserDtoValidator} instead of Bean Validation.
+     */
+    @InitBinder("userDto")
+    public void initUserDtoBinder(WebDataBinder binder) {
+        binder.setValidator(userDtoValidator);
+    }
+
+    /**
+     * With {@code users.write-behind.enabled} the user is only queued and the response is 202 with the
+     * location of {@link #getUserWriteStatus}; otherwise it is saved before the response.
+     */
     @PostMapping
     public ResponseEntity<?> createUser(@Valid @RequestBody UserDto dto) {
             UserEntity entity = dto.toEntity();
+            if (userWriteBehindService.isEnabled()) {
+                UserEntity queuedEntity = userWriteBehindService.enqueue(entity);
+                URI status = ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}/status")
+                        .buildAndExpand(queuedEntity.getId())
+                        .toUri();
+                return ResponseEntity.accepted()
+                        .location(status)
+                        .body(UserDto.fromEntity(queuedEntity));
+            }
             UserEntity createdEntity = userService.saveUser(entity);
             UserDto result = UserDto.fromEntity(createdEntity);
             return ResponseEntity.ok(result);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importUsers(@RequestBody List<UserDto> dtos) {
+            UserImportResultDto result = userService.importUsers(toEntities(dtos.iterator()));
+            return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> importUsersNdjson(HttpServletRequest request) throws IOException {
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+                NdjsonUserReader users = new NdjsonUserReader(objectMapper.readerFor(UserDto.class), lines);
+                UserImportResultDto result = userService.importUsers(users);
+                return ResponseEntity.ok(users.merge(result));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+    }
+
     @PutMapping
     public ResponseEntity<?> updateUser(@Valid @RequestBody UserDto dto) {
             UserEntity entity = dto.toEntity();
@@ -42,6 +136,25 @@ public class UserRestControllerV1 {
             return ResponseEntity.ok(result);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchUser(@PathVariable("id") Integer id, @Valid @RequestBody UserPatchDto dto) {
+            userService.patchUser(id, dto.toEntity());
+            return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getUserById(@PathVariable("id") Integer id) {
+            UserEntity entity = userService.getUserById(id);
+            UserDto result = UserDto.fromEntity(entity);
+            return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/{id}/status")
+    public ResponseEntity<?> getUserWriteStatus(@PathVariable("id") Integer id) {
+            UserWriteStatusDto result = userWriteBehindService.getStatus(id);
+            return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable("id") Integer id) {
             userService.deleteById(id);
@@ -52,13 +165,96 @@ public class UserRestControllerV1 {
     public ResponseEntity<?> getUsersByBirthDateRange(
             @RequestParam(value = "from") @Past(message = "The 'From' date must be past.") LocalDate from,
             @RequestParam(value = "to") @PastOrPresent(message = "The 'To' date must be past or current") LocalDate to,
-            Pageable pageable) {
-            List<UserEntity> users = userService.getAllUsersByBirthDateRange(from, to, pageable);
-            return ResponseEntity.ok(users);
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "fields", required = false) String fields,
+            Pageable pageable,
+            HttpServletRequest request) {
+            if (cursor != null) {
+                return ResponseEntity.ok(getUsersPageByBirthDateRange(from, to, cursor, pageable.getPageSize()));
+            }
+            if (fields != null) {
+                return ResponseEntity.ok(userService.getUsersByBirthDateRange(from, to, UserField.parse(fields), pageable));
+            }
+            UserRangePage page = userService.getAllUsersByBirthDateRange(from, to, pageable);
+            // Spring answers a matching If-None-Match with 304 before the body is converted.
+            return ResponseEntity.ok()
+                    .eTag("W/\"" + page.version() + "-" + pageEncoding(request) + "\"")
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(page.users().stream().map(UserDto::fromEntity).toList());
+    }
+
+    /**
+     * Subtype of the encoding the {@code Accept} header selects for a page, so that the JSON, CBOR and Smile forms
+     * of the same page carry different ETags. The tag is weak, since gzip may still re-encode the bytes. A malformed
+     * header is left for message conversion to reject.
+     */
+    private static String pageEncoding(HttpServletRequest request) {
+            List<MediaType> acceptable;
+            try {
+                acceptable = ACCEPT_HEADER.resolveMediaTypes(new ServletWebRequest(request));
+            } catch (HttpMediaTypeNotAcceptableException e) {
+                return MediaType.APPLICATION_JSON.getSubtype();
+            }
+            for (MediaType accepted : acceptable) {
+                for (MediaType encoding : PAGE_ENCODINGS) {
+                    if (accepted.isCompatibleWith(encoding)) {
+                        return encoding.getSubtype();
+                    }
+                }
+            }
+            return MediaType.APPLICATION_JSON.getSubtype();
+    }
+
+    /**
+     * Streams the range as newline-delimited JSON straight to the response, one user per line,
+     * so memory use does not grow with the size of the range.
+     */
+    @GetMapping("/export")
+    public void exportUsersByBirthDateRange(
+            @RequestParam(value = "from") @Past(message = "The 'From' date must be past.") LocalDate from,
+            @RequestParam(value = "to") @PastOrPresent(message = "The 'To' date must be past or current") LocalDate to,
+            HttpServletResponse response) throws IOException {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            OutputStream out = response.getOutputStream();
+            try {
+                userService.exportUsersByBirthDateRange(from, to, user -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(UserDto.fromEntity(user)));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
     }
 
-    @ExceptionHandler({UserNotAdultException.class, UserNotFoundException.class, BirthDateRangeException.class})
+    /**
+     * Keyset mode of {@link #getUsersByBirthDateRange}: an empty {@code cursor} requests the first page,
+     * and {@code nextCursor} is present in the response only while there may be more rows to fetch.
+     */
+    private UserPageDto getUsersPageByBirthDateRange(LocalDate from, LocalDate to, String cursor, int size) {
+            UserCursor after = cursor.isEmpty() ? null : UserCursor.decode(cursor);
+            List<UserEntity> users = userService.getUsersByBirthDateRangeAfter(from, to, after, size);
+            String nextCursor = users.size() < size ? null : UserCursor.of(users.get(users.size() - 1)).encode();
+            return UserPageDto.builder()
+                    .users(users.stream().map(UserDto::fromEntity).toList())
+                    .nextCursor(nextCursor)
+                    .build();
+    }
+
+    private static Iterator<UserEntity> toEntities(Iterator<UserDto> dtos) {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(dtos, Spliterator.ORDERED), false)
+                    .map(UserDto::toEntity)
+                    .iterator();
+    }
+
+    @ExceptionHandler({UserNotAdultException.class, UserNotFoundException.class, BirthDateRangeException.class,
+            InvalidCursorException.class, EmailAlreadyExistsException.class, InvalidFieldsException.class})
     public ResponseEntity<?> handleException(Exception e) {
+        userMetrics.countException(e);
         return ResponseEntity.badRequest()
                 .body(ErrorDto.builder()
                         .status(400)
@@ -66,4 +262,16 @@ public class UserRestControllerV1 {
                         .build()
                 );
     }
+
+    @ExceptionHandler(UserQueueFullException.class)
+    public ResponseEntity<?> handleQueueFullException(UserQueueFullException e) {
+        userMetrics.countException(e);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorDto.builder()
+                        .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                        .message(e.getMessage())
+                        .build()
+                );
+    }
 }
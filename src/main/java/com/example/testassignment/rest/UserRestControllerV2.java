@@ -0,0 +1,99 @@
+package com.example.testassignment.rest;
+
+import com.example.testassignment.config.UserMetrics;
+import com.example.testassignment.dto.ErrorDto;
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.exception.EmailAlreadyExistsException;
+import com.example.testassignment.exception.UserNotAdultException;
+import com.example.testassignment.exception.UserNotFoundException;
+import com.example.testassignment.service.ReactiveUserService;
+import com.example.testassignment.util.UserDtoValidator;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.PastOrPresent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reactive version of {@link UserRestControllerV1}, served on Netty when the {@code reactive} profile is active.
+ * The range endpoint streams its result, as newline-delimited JSON when the client asks for it,
+ * so a large range is never held in memory.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v2/users")
+@RequiredArgsConstructor(onConstructor_ = {@Autowired})
+public class UserRestControllerV2 {
+
+    private final ReactiveUserService userService;
+
+    private final UserMetrics userMetrics;
+
+    private final UserDtoValidator userDtoValidator;
+
+    /**
+     * Validates {@link UserDto} request bodies with {@link UserDtoValidator} instead of Bean Validation.
+     */
+    @InitBinder("userDto")
+    public void initUserDtoBinder(WebDataBinder binder) {
+        binder.setValidator(userDtoValidator);
+    }
+
+    @PostMapping
+    public Mono<UserDto> createUser(@Valid @RequestBody UserDto dto) {
+            return userService.saveUser(dto.toEntity())
+                    .map(UserDto::fromEntity);
+    }
+
+    @PutMapping
+    public Mono<UserDto> updateUser(@Valid @RequestBody UserDto dto) {
+            return userService.updateUser(dto.toEntity())
+                    .map(UserDto::fromEntity);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteUser(@PathVariable("id") Integer id) {
+            return userService.deleteById(id);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<UserDto> getUsersByBirthDateRange(
+            @RequestParam(value = "from") @Past(message = "The 'From' date must be past.") LocalDate from,
+            @RequestParam(value = "to") @PastOrPresent(message = "The 'To' date must be past or current") LocalDate to) {
+            return userService.getUsersByBirthDateRange(from, to)
+                    .map(UserDto::fromEntity);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleValidationException(WebExchangeBindException e) {
+        Map<String, String> errors = new HashMap<>();
+        e.getBindingResult().getFieldErrors()
+                .forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    @ExceptionHandler({UserNotAdultException.class, UserNotFoundException.class, BirthDateRangeException.class,
+            EmailAlreadyExistsException.class})
+    public ResponseEntity<?> handleException(Exception e) {
+        userMetrics.countException(e);
+        return ResponseEntity.badRequest()
+                .body(ErrorDto.builder()
+                        .status(400)
+                        .message(e.getMessage())
+                        .build()
+                );
+    }
+}
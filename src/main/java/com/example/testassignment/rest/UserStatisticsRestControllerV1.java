@@ -0,0 +1,62 @@
+package com.example.testassignment.rest;
+
+import com.example.testassignment.config.UserMetrics;
+import com.example.testassignment.dto.ErrorDto;
+import com.example.testassignment.dto.UserHistogramDto;
+import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.service.UserStatisticsService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PastOrPresent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Histograms of users over their birth date, answered from the in-memory counters of
+ * {@link com.example.testassignment.service.UserBirthDateHistogram}.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/users/statistics")
+@RequiredArgsConstructor(onConstructor_ = {@Autowired})
+public class UserStatisticsRestControllerV1 {
+
+    private final UserStatisticsService userStatisticsService;
+
+    private final UserMetrics userMetrics;
+
+    @GetMapping("/birth-years")
+    public ResponseEntity<?> getBirthYearHistogram(
+            @RequestParam(value = "from") LocalDate from,
+            @RequestParam(value = "to") @PastOrPresent(message = "The 'To' date must be past or current") LocalDate to) {
+            UserHistogramDto result = userStatisticsService.getBirthYearHistogram(from, to);
+            return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/age-bands")
+    public ResponseEntity<?> getAgeBandHistogram(
+            @RequestParam(value = "from") LocalDate from,
+            @RequestParam(value = "to") @PastOrPresent(message = "The 'To' date must be past or current") LocalDate to,
+            @RequestParam(value = "width", defaultValue = "10")
+            @Min(value = 1, message = "The band width must be at least 1 year")
+            @Max(value = 100, message = "The band width must be at most 100 years") int width) {
+            UserHistogramDto result = userStatisticsService.getAgeBandHistogram(from, to, width);
+            return ResponseEntity.ok(result);
+    }
+
+    @ExceptionHandler(BirthDateRangeException.class)
+    public ResponseEntity<?> handleException(Exception e) {
+        userMetrics.countException(e);
+        return ResponseEntity.badRequest()
+                .body(ErrorDto.builder()
+                        .status(400)
+                        .message(e.getMessage())
+                        .build()
+                );
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.entity.UserEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking counterpart of {@link UserService} used by the {@code reactive} profile.
+ * Applies the same {@link UserRules} and signals the same exceptions as errors.
+ */
+public interface ReactiveUserService {
+
+    Mono<UserEntity> saveUser(UserEntity user);
+
+    Mono<UserEntity> updateUser(UserEntity user);
+
+    /**
+     * Emits every user born within the range in {@code (birthDate, id)} order, as fast as the subscriber requests them.
+     */
+    Flux<UserEntity> getUsersByBirthDateRange(LocalDate from, LocalDate to);
+
+    Mono<Void> deleteById(Integer id);
+}
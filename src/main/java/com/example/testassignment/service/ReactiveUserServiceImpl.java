@@ -0,0 +1,69 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.exception.UserNotFoundException;
+import com.example.testassignment.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Reactive counterpart of {@link UserServiceImpl} for {@code /api/v2/users}. Changes reach the outbox through
+ * {@link ReactiveUserRepository}, which appends them in the statement of the write.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final UserRules userRules;
+
+    @Override
+    public Mono<UserEntity> saveUser(UserEntity user) {
+        return Mono.fromRunnable(() -> userRules.checkAdult(user.getBirthDate()))
+                .then(Mono.defer(() -> userRepository.insert(user)))
+                .onErrorMap(DataIntegrityViolationException.class, UserEmailConflicts::translate)
+                .doOnNext(savedUser -> eventPublisher.publishEvent(
+                        UserChangedEvent.created(savedUser.getId(), savedUser.getBirthDate())));
+    }
+
+    @Override
+    public Mono<UserEntity> updateUser(UserEntity user) {
+        if (user.getId() == null) {
+            return Mono.error(new UserNotFoundException("User not found."));
+        }
+        return userRepository.update(user)
+                .onErrorMap(DataIntegrityViolationException.class, UserEmailConflicts::translate)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found.")))
+                .map(previousBirthDate -> {
+                    eventPublisher.publishEvent(
+                            UserChangedEvent.updated(user.getId(), previousBirthDate, user.getBirthDate()));
+                    return user;
+                });
+    }
+
+    @Override
+    public Flux<UserEntity> getUsersByBirthDateRange(LocalDate from, LocalDate to) {
+        return Mono.fromRunnable(() -> userRules.checkBirthDateRange(from, to))
+                .thenMany(Flux.defer(() -> userRepository.findByBirthDateBetween(from, to)));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Integer id) {
+        return userRepository.deleteById(id)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found.")))
+                .doOnNext(previousBirthDate -> eventPublisher.publishEvent(UserChangedEvent.deleted(id, previousBirthDate)))
+                .then();
+    }
+}
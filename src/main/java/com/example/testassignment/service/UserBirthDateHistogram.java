@@ -0,0 +1,124 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.event.UsersBulkLoadedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of users per birth date, kept in memory as one counter per day between {@link #MIN_DATE} and
+ * {@link #MAX_DATE} plus one counter per year, so that histograms never touch the database.
+ * <p>
+ * The counters are rebuilt with a {@code GROUP BY} query at startup and after bulk loads, and adjusted
+ * for every single-user change in between. A change that commits while a rebuild is running may be missed
+ * or counted twice until the next rebuild. Birth dates outside the supported range are only counted in
+ * {@link #outOfRange()}.
+ */
+@Component
+public class UserBirthDateHistogram {
+
+    public static final LocalDate MIN_DATE = LocalDate.of(1900, 1, 1);
+
+    public static final LocalDate MAX_DATE = LocalDate.of(2099, 12, 31);
+
+    private static final String COUNT_BY_BIRTH_DATE_SQL = "SELECT birth_date, count(*) FROM users GROUP BY birth_date";
+
+    private static final long MIN_EPOCH_DAY = MIN_DATE.toEpochDay();
+
+    private static final int DAYS = (int) (MAX_DATE.toEpochDay() - MIN_EPOCH_DAY + 1);
+
+    private static final int YEARS = MAX_DATE.getYear() - MIN_DATE.getYear() + 1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Counters counters = new Counters();
+
+    public UserBirthDateHistogram(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Number of users born between {@code from} and {@code to}, both inclusive.
+     */
+    public long count(LocalDate from, LocalDate to) {
+        Counters current = counters;
+        LocalDate start = from.isBefore(MIN_DATE) ? MIN_DATE : from;
+        LocalDate end = to.isAfter(MAX_DATE) ? MAX_DATE : to;
+        long count = 0;
+        while (!start.isAfter(end)) {
+            LocalDate endOfYear = LocalDate.of(start.getYear(), 12, 31);
+            if (start.getDayOfYear() == 1 && !endOfYear.isAfter(end)) {
+                count += current.byYear.get(start.getYear() - MIN_DATE.getYear());
+            } else {
+                LocalDate last = endOfYear.isAfter(end) ? end : endOfYear;
+                for (long day = start.toEpochDay(); day <= last.toEpochDay(); day++) {
+                    count += current.byDay.get((int) (day - MIN_EPOCH_DAY));
+                }
+            }
+            start = endOfYear.plusDays(1);
+        }
+        return count;
+    }
+
+    public long outOfRange() {
+        return counters.outOfRange.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Counters current = counters;
+        if (event.previousBirthDate() != null && event.birthDate() != null
+                && event.previousBirthDate().equals(event.birthDate())) {
+            return;
+        }
+        if (event.previousBirthDate() != null) {
+            current.add(event.previousBirthDate(), -1);
+        }
+        if (event.birthDate() != null && (event.type() == UserChangedEvent.ChangeType.CREATED || event.previousBirthDate() != null)) {
+            current.add(event.birthDate(), 1);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersBulkLoaded(UsersBulkLoadedEvent event) {
+        rebuild();
+    }
+
+    public void rebuild() {
+        Counters rebuilt = new Counters();
+        jdbcTemplate.query(COUNT_BY_BIRTH_DATE_SQL, (RowCallbackHandler) rs ->
+                rebuilt.add(rs.getObject(1, LocalDate.class), rs.getInt(2)));
+        counters = rebuilt;
+    }
+
+    private static class Counters {
+
+        private final AtomicIntegerArray byDay = new AtomicIntegerArray(DAYS);
+
+        private final AtomicIntegerArray byYear = new AtomicIntegerArray(YEARS);
+
+        private final AtomicLong outOfRange = new AtomicLong();
+
+        private void add(LocalDate birthDate, int delta) {
+            if (birthDate.isBefore(MIN_DATE) || birthDate.isAfter(MAX_DATE)) {
+                outOfRange.addAndGet(delta);
+                return;
+            }
+            byDay.addAndGet((int) (birthDate.toEpochDay() - MIN_EPOCH_DAY), delta);
+            byYear.addAndGet(birthDate.getYear() - MIN_DATE.getYear(), delta);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.event.UsersBulkLoadedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sorted in-memory index of {@code (birth date, id)} pairs that answers range counts in O(log n) and lists
+ * the ids of a range in {@code (birthDate, id)} order without querying the database.
+ * <p>
+ * Each pair is packed into one {@code long}, the epoch day in the upper and the id in the lower 32 bits,
+ * so the index takes 8 bytes per user: 400 MB for 50 million users. Changes after a build go to two small
+ * sorted sets of added and removed keys, which are merged into the array once they exceed
+ * {@code users.birth-date-index.compaction-threshold} entries.
+ * <p>
+ * The index is built from {@code users} in the background after startup and after bulk loads. Changes that
+ * commit during a build are replayed onto the new index; applying a change twice has no effect. Until the
+ * first build completes, {@link #findIds} answers nothing and callers fall back to the database.
+ * <p>
+ * Single-node only, hence off unless {@code users.birth-date-index.enabled} is set: the index follows the
+ * {@link UserChangedEvent}s of this node, so with several nodes it misses users written on the others until its
+ * next rebuild, and range pages served from it would silently leave them out. While disabled nothing is built or
+ * tracked and {@link #findIds} always answers nothing.
+ */
+@Slf4j
+@Component
+public class UserBirthDateIndex {
+
+    private static final String COUNT_SQL = "SELECT count(*) FROM users";
+
+    private static final String FIRST_BATCH_SQL = "SELECT birth_date, id FROM users ORDER BY birth_date, id LIMIT ?";
+
+    private static final String NEXT_BATCH_SQL =
+            "SELECT birth_date, id FROM users WHERE (birth_date, id) > (?, ?) ORDER BY birth_date, id LIMIT ?";
+
+    private static final int LOAD_BATCH_SIZE = 50_000;
+
+    /**
+     * Rough heap footprint of one boxed entry in a {@link TreeSet}.
+     */
+    private static final int DELTA_ENTRY_BYTES = 56;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+
+    private final int compactionThreshold;
+
+    private final int maxIds;
+
+    private final Timer rebuildTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+            .name("user-birth-date-index-builder")
+            .daemon()
+            .factory());
+
+    private long[] keys = new long[0];
+
+    private int size;
+
+    private final NavigableSet<Long> added = new TreeSet<>();
+
+    private final NavigableSet<Long> removed = new TreeSet<>();
+
+    /**
+     * Changes applied while a build is running, {@code null} otherwise.
+     */
+    private List<UserChangedEvent> journal;
+
+    private volatile boolean ready;
+
+    public UserBirthDateIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                              @Value("${users.birth-date-index.enabled:false}") boolean enabled,
+                              @Value("${users.birth-date-index.compaction-threshold:100000}") int compactionThreshold,
+                              @Value("${users.birth-date-index.max-ids:1000}") int maxIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.compactionThreshold = compactionThreshold;
+        this.maxIds = maxIds;
+        this.rebuildTimer = Timer.builder("users.birthdate.index.rebuild")
+                .description("Time to build the birth date index from the database")
+                .register(meterRegistry);
+        Gauge.builder("users.birthdate.index.entries", this, UserBirthDateIndex::entries)
+                .description("Users in the birth date index")
+                .register(meterRegistry);
+        Gauge.builder("users.birthdate.index.memory", this, UserBirthDateIndex::memoryBytes)
+                .description("Heap used by the birth date index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of users born between {@code from} and {@code to}, both inclusive.
+     */
+    public long count(LocalDate from, LocalDate to) {
+        long low = lowKey(from);
+        long high = highKey(to);
+        lock.readLock().lock();
+        try {
+            return lowerBound(high + 1) - lowerBound(low)
+                    - removed.subSet(low, true, high, true).size()
+                    + added.subSet(low, true, high, true).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the users born between {@code from} and {@code to} on the requested page, in
+     * {@code (birthDate, id)} order. Empty if the index is not built yet, if the page is sorted differently,
+     * or if it would list more than {@code users.birth-date-index.max-ids} ids.
+     */
+    public Optional<List<Integer>> findIds(LocalDate from, LocalDate to, Pageable pageable) {
+        if (!ready || !isIndexOrder(pageable.getSort())) {
+            return Optional.empty();
+        }
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long limit = pageable.isPaged() ? pageable.getPageSize() : count(from, to);
+        if (limit > maxIds) {
+            return Optional.empty();
+        }
+        return Optional.of(ids(from, to, offset, (int) limit));
+    }
+
+    List<Integer> ids(LocalDate from, LocalDate to, long offset, int limit) {
+        long low = lowKey(from);
+        long high = highKey(to);
+        List<Integer> ids = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            int index = lowerBound(low);
+            Iterator<Long> addedKeys = added.subSet(low, true, high, true).iterator();
+            Long nextAdded = addedKeys.hasNext() ? addedKeys.next() : null;
+            long skipped = 0;
+            while (ids.size() < limit) {
+                long key;
+                boolean fromBase = index < size && keys[index] <= high;
+                if (fromBase && (nextAdded == null || keys[index] < nextAdded)) {
+                    key = keys[index++];
+                    if (removed.contains(key)) {
+                        continue;
+                    }
+                } else if (nextAdded != null) {
+                    key = nextAdded;
+                    nextAdded = addedKeys.hasNext() ? addedKeys.next() : null;
+                } else {
+                    break;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    ids.add((int) key);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (journal != null) {
+                journal.add(event);
+            }
+            if (added.size() + removed.size() > compactionThreshold) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            builder.execute(this::rebuild);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersBulkLoaded(UsersBulkLoadedEvent event) {
+        if (enabled) {
+            builder.execute(this::rebuild);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    void rebuild() {
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long[] loaded;
+        try {
+            loaded = rebuildTimer.record(this::load);
+        } catch (RuntimeException e) {
+            log.warn("Building the birth date index failed, range queries use the database", e);
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            keys = loaded;
+            size = loaded.length;
+            added.clear();
+            removed.clear();
+            journal.forEach(this::apply);
+            journal = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] load() {
+        Long expected = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+        long[][] loaded = {new long[Math.toIntExact(expected == null ? 0 : expected)]};
+        int[] loadedSize = {0};
+        int[] rows = new int[1];
+        RowCallbackHandler collector = rs -> {
+            if (loadedSize[0] == loaded[0].length) {
+                loaded[0] = Arrays.copyOf(loaded[0], Math.max(16, loaded[0].length + (loaded[0].length >> 1)));
+            }
+            loaded[0][loadedSize[0]++] = key(rs.getObject(1, LocalDate.class), rs.getInt(2));
+            rows[0]++;
+        };
+        jdbcTemplate.query(FIRST_BATCH_SQL, collector, LOAD_BATCH_SIZE);
+        while (rows[0] == LOAD_BATCH_SIZE) {
+            rows[0] = 0;
+            long last = loaded[0][loadedSize[0] - 1];
+            jdbcTemplate.query(NEXT_BATCH_SQL, collector, LocalDate.ofEpochDay(last >> 32), (int) last, LOAD_BATCH_SIZE);
+        }
+        return loadedSize[0] == loaded[0].length ? loaded[0] : Arrays.copyOf(loaded[0], loadedSize[0]);
+    }
+
+    private void apply(UserChangedEvent event) {
+        if (event.previousBirthDate() != null) {
+            remove(key(event.previousBirthDate(), event.id()));
+        }
+        if (event.birthDate() != null
+                && (event.type() == UserChangedEvent.ChangeType.CREATED || event.previousBirthDate() != null)) {
+            add(key(event.birthDate(), event.id()));
+        }
+    }
+
+    private void add(long key) {
+        if (!removed.remove(key) && !containsInBase(key)) {
+            added.add(key);
+        }
+    }
+
+    private void remove(long key) {
+        if (!added.remove(key) && containsInBase(key)) {
+            removed.add(key);
+        }
+    }
+
+    private void compact() {
+        long[] merged = new long[size - removed.size() + added.size()];
+        int mergedSize = 0;
+        int index = 0;
+        Iterator<Long> addedKeys = added.iterator();
+        Long nextAdded = addedKeys.hasNext() ? addedKeys.next() : null;
+        while (index < size || nextAdded != null) {
+            if (index < size && (nextAdded == null || keys[index] < nextAdded)) {
+                long key = keys[index++];
+                if (!removed.contains(key)) {
+                    merged[mergedSize++] = key;
+                }
+            } else {
+                merged[mergedSize++] = nextAdded;
+                nextAdded = addedKeys.hasNext() ? addedKeys.next() : null;
+            }
+        }
+        keys = merged;
+        size = mergedSize;
+        added.clear();
+        removed.clear();
+    }
+
+    private boolean containsInBase(long key) {
+        return Arrays.binarySearch(keys, 0, size, key) >= 0;
+    }
+
+    /**
+     * Index of the first base key that is not less than {@code key}.
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private double entries() {
+        lock.readLock().lock();
+        try {
+            return size - removed.size() + added.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return (double) keys.length * Long.BYTES + (double) (added.size() + removed.size()) * DELTA_ENTRY_BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isIndexOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() <= 2
+                && orders.get(0).getProperty().equals("birthDate") && orders.get(0).isAscending()
+                && (orders.size() == 1 || orders.get(1).getProperty().equals("id") && orders.get(1).isAscending());
+    }
+
+    static long key(LocalDate birthDate, int id) {
+        return birthDate.toEpochDay() << 32 | (id & 0xFFFFFFFFL);
+    }
+
+    private static long lowKey(LocalDate date) {
+        return date.toEpochDay() << 32;
+    }
+
+    private static long highKey(LocalDate date) {
+        return date.toEpochDay() << 32 | 0xFFFFFFFFL;
+    }
+}
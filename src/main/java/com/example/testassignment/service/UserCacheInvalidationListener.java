@@ -0,0 +1,174 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.config.CacheConfig;
+import com.example.testassignment.entity.UserEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drops users changed on any node from this node's caches: the {@link UserNearCache} behind {@code getUserById}
+ * and, when enabled, Hibernate's second-level cache, including the cached birth date range queries. Triggers on {@code users} announce the
+ * ids of updated and deleted users on the PostgreSQL channel {@value #CHANNEL} at commit, and a dedicated
+ * connection outside the pool listens for them, so entries go stale for milliseconds rather than until they
+ * expire.
+ * <p>
+ * Notifications are delivered to every listener, including the node that made the change; the second eviction
+ * there only costs one extra load. Whatever is sent while the connection is down is lost, so the caches are
+ * cleared on every (re)connect. Does nothing on databases other than PostgreSQL.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "users.near-cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class UserCacheInvalidationListener {
+
+    static final String CHANNEL = "users_changed";
+
+    static final String ALL_USERS = "*";
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final UserNearCache nearCache;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Duration pollTimeout;
+
+    private final Duration reconnectDelay;
+
+    private final Counter usersInvalidated;
+
+    private final Counter cachesCleared;
+
+    private volatile boolean listening;
+
+    private final ExecutorService listener = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+            .name("user-cache-invalidation")
+            .daemon()
+            .factory());
+
+    public UserCacheInvalidationListener(DataSourceProperties dataSourceProperties, UserNearCache nearCache,
+                                         EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+                                         @Value("${users.near-cache.invalidation.poll-timeout:1s}") Duration pollTimeout,
+                                         @Value("${users.near-cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.nearCache = nearCache;
+        this.entityManagerFactory = entityManagerFactory;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.usersInvalidated = invalidationCounter(meterRegistry, "user");
+        this.cachesCleared = invalidationCounter(meterRegistry, "all");
+    }
+
+    private static Counter invalidationCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("users.near.cache.invalidations")
+                .description("User cache invalidations received over LISTEN/NOTIFY")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        listener.execute(this::listenContinuously);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        listener.shutdownNow();
+        listener.awaitTermination(pollTimeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+    }
+
+    private void listenContinuously() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    log.info("Cross-node cache invalidation needs PostgreSQL, not listening for user changes");
+                    return;
+                }
+                listen(connection);
+            } catch (SQLException e) {
+                log.warn("Lost the {} channel, reconnecting in {}: {}", CHANNEL, reconnectDelay, e.getMessage());
+            }
+            try {
+                Thread.sleep(reconnectDelay);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+        apply(ALL_USERS);
+        listening = true;
+        try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            while (!Thread.currentThread().isInterrupted()) {
+                PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                if (notifications == null) {
+                    continue;
+                }
+                for (PGNotification notification : notifications) {
+                    apply(notification.getParameter());
+                }
+            }
+        } finally {
+            listening = false;
+        }
+    }
+
+    boolean isListening() {
+        return listening;
+    }
+
+    /**
+     * Applies one notification payload: {@value #ALL_USERS} or a comma-separated list of user ids.
+     */
+    void apply(String payload) {
+        Cache entities = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        entities.evictQueryRegion(CacheConfig.USERS_BY_BIRTH_DATE_REGION);
+        if (ALL_USERS.equals(payload)) {
+            nearCache.invalidateAll();
+            entities.evictEntityData(UserEntity.class);
+            cachesCleared.increment();
+            return;
+        }
+        for (String value : payload.split(",")) {
+            Integer id;
+            try {
+                id = Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Unexpected payload on {}, clearing user caches: {}", CHANNEL, payload);
+                apply(ALL_USERS);
+                return;
+            }
+            nearCache.invalidate(id);
+            entities.evictEntityData(UserEntity.class, id);
+            usersInvalidated.increment();
+        }
+    }
+}
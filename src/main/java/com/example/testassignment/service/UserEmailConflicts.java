@@ -0,0 +1,34 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.exception.EmailAlreadyExistsException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reports a violation of a unique email index the way the services report an email that is known to be taken.
+ */
+final class UserEmailConflicts {
+
+    /**
+     * Unique indexes on the email: on {@code users} itself, and on {@code user_emails} once it is partitioned.
+     */
+    private static final List<String> EMAIL_CONSTRAINTS = List.of("uk_users_email_lower", "uk_user_emails_email_lower");
+
+    private UserEmailConflicts() {
+    }
+
+    /**
+     * @return an {@link EmailAlreadyExistsException} if {@code e} violates a unique email index, {@code e} otherwise
+     */
+    static RuntimeException translate(DataIntegrityViolationException e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage())
+                .toLowerCase(Locale.ROOT);
+        if (EMAIL_CONSTRAINTS.stream().anyMatch(message::contains)) {
+            return new EmailAlreadyExistsException("User with this email already exists.");
+        }
+        return e;
+    }
+}
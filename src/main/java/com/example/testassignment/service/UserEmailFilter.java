@@ -0,0 +1,186 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.event.UsersBulkLoadedEvent;
+import com.example.testassignment.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory Bloom filter over the emails in {@code users}, so that checking a new email for uniqueness only
+ * needs a database lookup when the filter reports a possible match.
+ * <p>
+ * The filter is loaded in the background after startup and reloaded after bulk loads, whose emails are not
+ * known individually. Until a load completes every email is reported as a possible match. The filter only
+ * sees writes made through this instance, so the unique index on {@code lower(email)} remains the authority.
+ */
+@Slf4j
+@Component
+public class UserEmailFilter {
+
+    private static final String EMAILS_AFTER_ID_SQL =
+            "SELECT id, lower(email) FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final long expectedInsertions;
+
+    private final double falsePositiveProbability;
+
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+            .name("user-email-filter-loader")
+            .daemon()
+            .factory());
+
+    private final Counter negatives;
+
+    private final Counter positives;
+
+    private final Counter falsePositives;
+
+    /**
+     * {@code null} while the filter is being (re)loaded.
+     */
+    private volatile BloomFilter filter;
+
+    /**
+     * Emails added while a load is running, replayed into the new filter once the load completes.
+     */
+    private final List<String> addedDuringLoad = new ArrayList<>();
+
+    private final AtomicLong loads = new AtomicLong();
+
+    public UserEmailFilter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                           @Value("${users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${users.email-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.negatives = checks(meterRegistry, "negative");
+        this.positives = checks(meterRegistry, "positive");
+        this.falsePositives = Counter.builder("users.email.filter.false.positives")
+                .description("Possible matches of the email filter that the database did not confirm")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.expected.fpp", this,
+                        emailFilter -> emailFilter.filter == null ? 1.0 : emailFilter.filter.expectedFalsePositiveProbability())
+                .description("False positive probability of the email filter estimated from its fill ratio")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.size", this,
+                        emailFilter -> emailFilter.filter == null ? 0 : emailFilter.filter.sizeInBytes())
+                .description("Memory used by the email filter bit set")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns {@code false} only if no user has the email, ignoring case.
+     */
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        boolean possible = current == null || current.mightContain(normalize(email));
+        (possible ? positives : negatives).increment();
+        return possible;
+    }
+
+    /**
+     * Records that a possible match reported by {@link #mightExist} turned out not to exist.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public void add(String email) {
+        String normalized = normalize(email);
+        synchronized (addedDuringLoad) {
+            BloomFilter current = filter;
+            if (current == null) {
+                addedDuringLoad.add(normalized);
+            } else {
+                current.put(normalized);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersBulkLoaded(UsersBulkLoadedEvent event) {
+        reload();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private void reload() {
+        long load = loads.incrementAndGet();
+        synchronized (addedDuringLoad) {
+            filter = null;
+        }
+        loader.execute(() -> {
+            if (load != loads.get()) {
+                return;
+            }
+            try {
+                BloomFilter loaded = load();
+                synchronized (addedDuringLoad) {
+                    if (load == loads.get()) {
+                        addedDuringLoad.forEach(loaded::put);
+                        addedDuringLoad.clear();
+                        filter = loaded;
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Loading the email filter failed, every email is checked against the database", e);
+            }
+        });
+    }
+
+    private BloomFilter load() {
+        BloomFilter loaded = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        long[] lastId = {Long.MIN_VALUE};
+        int[] rows = new int[1];
+        do {
+            rows[0] = 0;
+            jdbcTemplate.query(EMAILS_AFTER_ID_SQL, (RowCallbackHandler) rs -> {
+                lastId[0] = rs.getLong(1);
+                loaded.put(normalize(rs.getString(2)));
+                rows[0]++;
+            }, lastId[0], LOAD_BATCH_SIZE);
+        } while (rows[0] == LOAD_BATCH_SIZE);
+        return loaded;
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("users.email.filter.checks")
+                .description("Email uniqueness checks answered by the email filter")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
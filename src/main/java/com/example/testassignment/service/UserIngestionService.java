@@ -0,0 +1,20 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.UserIngestionResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserIngestionService {
+
+    enum Format {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * Loads users from {@code input} in a single transaction using PostgreSQL {@code COPY}.
+     * Rows that fail validation or whose email already exists are counted and skipped.
+     */
+    UserIngestionResultDto ingest(InputStream input, Format format) throws IOException;
+}
@@ -0,0 +1,254 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserIngestionResultDto;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UsersBulkLoadedEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+public class UserIngestionServiceImpl implements UserIngestionService {
+
+    private static final String CREATE_STAGING_TABLE_SQL = """
+            CREATE TEMPORARY TABLE users_staging (
+                email        VARCHAR(255),
+                first_name   VARCHAR(255),
+                last_name    VARCHAR(255),
+                birth_date   DATE,
+                address      VARCHAR(255),
+                phone_number VARCHAR(255)
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_SQL =
+            "COPY users_staging (email, first_name, last_name, birth_date, address, phone_number) FROM STDIN WITH (FORMAT csv)";
+
+    /**
+     * Inserts staged rows whose email is not taken yet. Identifiers are drawn from {@code users_id_seq} in
+     * blocks of {@link UserEntity#ID_ALLOCATION_SIZE}, mirroring Hibernate's pooled optimizer, so one
+     * {@code nextval} call covers a whole block and never collides with identifiers handed out by the application.
+     * One block more than needed is reserved: a fresh sequence first returns its initial value {@code 1}, whose
+     * block would reach below {@code 1} (see {@code SequenceBlock#refill}), so such a block is skipped.
+     */
+    private static final String MERGE_SQL = """
+            WITH candidates AS (
+                SELECT DISTINCT ON (lower(s.email)) s.*
+                FROM users_staging s
+                WHERE NOT EXISTS (SELECT 1 FROM users u WHERE lower(u.email) = lower(s.email))
+                ORDER BY lower(s.email)
+            ), numbered AS (
+                SELECT c.*, row_number() OVER () - 1 AS rn FROM candidates c
+            ), reserved AS (
+                SELECT nextval('users_id_seq') AS hi
+                FROM generate_series(1, (SELECT ((count(*) + %1$d - 1) / %1$d)::int + 1 FROM numbered HAVING count(*) > 0))
+            ), blocks AS (
+                SELECT row_number() OVER (ORDER BY hi) - 1 AS block, hi FROM reserved WHERE hi >= %1$d
+            )
+            INSERT INTO users (id, email, first_name, last_name, birth_date, address, phone_number)
+            SELECT bl.hi - %1$d + 1 + n.rn %% %1$d, n.email, n.first_name, n.last_name, n.birth_date, n.address, n.phone_number
+            FROM numbered n
+            JOIN blocks bl ON bl.block = n.rn / %1$d""".formatted(UserEntity.ID_ALLOCATION_SIZE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final UserRules userRules;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+
+    @Value("${users.ingestion.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${users.ingestion.workers:4}")
+    private int workers;
+
+    @Override
+    @Transactional
+    public UserIngestionResultDto ingest(InputStream input, Format format) throws IOException {
+        long startedAt = System.nanoTime();
+        ObjectReader reader = format == Format.CSV
+                ? csvMapper.readerFor(UserDto.class).with(CsvSchema.emptySchema().withHeader())
+                : objectMapper.readerFor(UserDto.class);
+
+        jdbcTemplate.execute(CREATE_STAGING_TABLE_SQL);
+        CopyStatistics statistics;
+        try (MappingIterator<UserDto> rows = reader.readValues(input)) {
+            statistics = jdbcTemplate.execute((ConnectionCallback<CopyStatistics>) connection -> {
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                        new PGCopyOutputStream(copyManager.copyIn(COPY_SQL)), StandardCharsets.UTF_8))) {
+                    return copy(rows, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        long merged = jdbcTemplate.update(MERGE_SQL);
+        if (merged > 0) {
+            eventPublisher.publishEvent(new UsersBulkLoadedEvent(merged));
+        }
+
+        long durationMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return UserIngestionResultDto.builder()
+                .received(statistics.received)
+                .accepted(statistics.accepted)
+                .rejected(statistics.received - statistics.accepted)
+                .rejectionReasons(statistics.rejectionReasons)
+                .duplicates(statistics.accepted - merged)
+                .merged(merged)
+                .durationMillis(durationMillis)
+                .rowsPerSecond(statistics.received * 1000 / durationMillis)
+                .build();
+    }
+
+    /**
+     * Reads rows in chunks, validates and encodes each chunk on the worker pool and writes the encoded
+     * chunks to {@code COPY} in input order. At most two chunks per worker are in flight, which bounds memory.
+     */
+    private CopyStatistics copy(MappingIterator<UserDto> rows, Writer writer) throws IOException {
+        CopyStatistics statistics = new CopyStatistics();
+        Deque<Future<ValidatedChunk>> inFlight = new ArrayDeque<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers)) {
+            List<UserDto> chunk = new ArrayList<>(chunkSize);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == chunkSize) {
+                    List<UserDto> toValidate = chunk;
+                    inFlight.add(executor.submit(() -> validate(toValidate)));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= workers * 2) {
+                        write(inFlight.poll(), writer, statistics);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<UserDto> toValidate = chunk;
+                inFlight.add(executor.submit(() -> validate(toValidate)));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), writer, statistics);
+            }
+        }
+        return statistics;
+    }
+
+    private void write(Future<ValidatedChunk> future, Writer writer, CopyStatistics statistics) throws IOException {
+        ValidatedChunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ingestion was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Row validation failed.", e.getCause());
+        }
+        writer.write(chunk.copyData());
+        statistics.received += chunk.received();
+        statistics.accepted += chunk.accepted();
+        chunk.rejectionReasons().forEach((reason, count) -> statistics.rejectionReasons.merge(reason, count, Long::sum));
+    }
+
+    private ValidatedChunk validate(List<UserDto> rows) {
+        StringBuilder copyData = new StringBuilder(rows.size() * 128);
+        Map<String, Long> rejectionReasons = new HashMap<>();
+        int accepted = 0;
+        for (UserDto row : rows) {
+            String reason = rejectionReason(row);
+            if (reason != null) {
+                rejectionReasons.merge(reason, 1L, Long::sum);
+                continue;
+            }
+            appendCopyRow(copyData, row);
+            accepted++;
+        }
+        return new ValidatedChunk(copyData.toString(), rows.size(), accepted, rejectionReasons);
+    }
+
+    private String rejectionReason(UserDto row) {
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (!userRules.isAdult(row.getBirthDate())) {
+            return UserRules.NOT_ADULT_MESSAGE;
+        }
+        return null;
+    }
+
+    /**
+     * Appends one line in PostgreSQL {@code COPY ... (FORMAT csv)} syntax. Values are always quoted so that
+     * an unquoted empty field unambiguously means {@code NULL}.
+     */
+    static void appendCopyRow(StringBuilder copyData, UserDto row) {
+        appendCopyValue(copyData, row.getEmail()).append(',');
+        appendCopyValue(copyData, row.getFirstName()).append(',');
+        appendCopyValue(copyData, row.getLastName()).append(',');
+        appendCopyValue(copyData, row.getBirthDate() == null ? null : row.getBirthDate().toString()).append(',');
+        appendCopyValue(copyData, row.getAddress()).append(',');
+        appendCopyValue(copyData, row.getPhoneNumber()).append('\n');
+    }
+
+    private static StringBuilder appendCopyValue(StringBuilder copyData, String value) {
+        if (value == null) {
+            return copyData;
+        }
+        return copyData.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private record ValidatedChunk(String copyData, int received, int accepted, Map<String, Long> rejectionReasons) {
+    }
+
+    private static class CopyStatistics {
+        private long received;
+        private long accepted;
+        private final Map<String, Long> rejectionReasons = new HashMap<>();
+    }
+}
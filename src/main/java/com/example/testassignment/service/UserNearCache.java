@@ -0,0 +1,84 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.config.CacheConfig;
+import com.example.testassignment.config.ReplicaRoutingDataSource;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * The {@value CacheConfig#USERS_CACHE} cache in front of user lookups by id. A load that overlaps an invalidation
+ * of the same user is returned but not cached, since it may have read the row before the change was committed
+ * and would otherwise keep the old row cached until it expires.
+ * <p>
+ * Every entry is filled by {@link #get}; writes only invalidate, once their transaction has committed, so that
+ * neither a concurrent load nor a rolled-back write can leave a row in the cache that the database does not hold.
+ * Rows loaded from a read replica are not cached either, since the replica may not have replayed a change whose
+ * invalidation has already arrived.
+ */
+@Component
+public class UserNearCache {
+
+    /**
+     * Invalidation stamps are kept per stripe of ids rather than per id, which bounds memory; an invalidation of
+     * another id in the same stripe only costs a skipped put.
+     */
+    private static final int STRIPES = 1024;
+
+    private final Cache cache;
+
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    public UserNearCache(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USERS_CACHE),
+                "Cache '" + CacheConfig.USERS_CACHE + "' is not configured.");
+    }
+
+    public UserEntity get(Integer id, Supplier<UserEntity> loader) {
+        UserEntity user = cache.get(id, UserEntity.class);
+        if (user != null) {
+            return user;
+        }
+        int stripe = stripe(id);
+        long loadedAt = invalidations.get(stripe);
+        user = loader.get();
+        if (ReplicaRoutingDataSource.isReadingFromReplica()) {
+            return user;
+        }
+        if (invalidations.get(stripe) == loadedAt) {
+            cache.put(id, user);
+            if (invalidations.get(stripe) != loadedAt) {
+                cache.evict(id);
+            }
+        }
+        return user;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.id());
+    }
+
+    public void invalidate(Integer id) {
+        invalidations.incrementAndGet(stripe(id));
+        cache.evict(id);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            invalidations.incrementAndGet(i);
+        }
+        cache.clear();
+    }
+
+    private static int stripe(Integer id) {
+        return Math.floorMod(id, STRIPES);
+    }
+}
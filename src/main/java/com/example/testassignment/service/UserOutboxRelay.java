@@ -0,0 +1,93 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.event.UserChangeMessage;
+import com.example.testassignment.event.UserChangeSink;
+import com.example.testassignment.repository.UserOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves user changes from {@code user_outbox} to every {@link UserChangeSink}. Each batch is locked, published
+ * and deleted in one transaction, so a batch is delivered at least once; a failing sink rolls the batch back
+ * and it is retried on the next run. A run keeps going while it finds full batches, so a backlog is drained
+ * without waiting for the next schedule.
+ * <p>
+ * Publishes {@code users.outbox.relayed} (messages delivered) and {@code users.outbox.lag} (time from
+ * recording a change to delivering it).
+ */
+@Slf4j
+@Component
+public class UserOutboxRelay {
+
+    private final UserOutboxRepository outboxRepository;
+
+    private final List<UserChangeSink> sinks;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Clock clock;
+
+    private final int batchSize;
+
+    private final Counter relayed;
+
+    private final Timer lag;
+
+    public UserOutboxRelay(UserOutboxRepository outboxRepository, List<UserChangeSink> sinks,
+                           TransactionTemplate transactionTemplate, Clock clock, MeterRegistry meterRegistry,
+                           @Value("${users.outbox.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder("users.outbox.relayed")
+                .description("User changes delivered from the outbox to the sinks")
+                .register(meterRegistry);
+        this.lag = Timer.builder("users.outbox.lag")
+                .description("Time from recording a user change to delivering it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${users.outbox.poll-interval:100}", timeUnit = TimeUnit.MILLISECONDS)
+    public void relay() {
+        try {
+            int relayedInBatch;
+            do {
+                relayedInBatch = relayBatch();
+            } while (relayedInBatch == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Relaying user changes failed, retrying on the next run", e);
+        }
+    }
+
+    int relayBatch() {
+        List<UserChangeMessage> messages = transactionTemplate.execute(status -> {
+            List<UserChangeMessage> batch = outboxRepository.lockBatch(batchSize);
+            if (!batch.isEmpty()) {
+                sinks.forEach(sink -> sink.publish(batch));
+                outboxRepository.delete(batch);
+            }
+            return batch;
+        });
+        if (messages == null || messages.isEmpty()) {
+            return 0;
+        }
+        long now = clock.millis();
+        messages.forEach(message -> lag.record(Duration.ofMillis(Math.max(0, now - message.createdAt().toEpochMilli()))));
+        relayed.increment(messages.size());
+        return messages.size();
+    }
+}
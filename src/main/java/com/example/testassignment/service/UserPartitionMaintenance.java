@@ -0,0 +1,94 @@
+package com.example.testassignment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the decade partitions of a partitioned {@code users} table ahead of time, up to the decade that contains
+ * today plus {@code users.partitions.lookahead-years}. Runs after startup and daily; does nothing unless
+ * {@code users} is a partitioned PostgreSQL table.
+ * <p>
+ * Birth dates without a partition land in {@code users_default}. A decade partition cannot be created while the
+ * default partition holds rows of that decade; such rows have to be moved by hand, and the partition is skipped
+ * with a warning until then.
+ */
+@Slf4j
+@Component
+public class UserPartitionMaintenance {
+
+    static final int PARTITION_YEARS = 10;
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT count(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid WHERE c.oid = to_regclass('users')";
+
+    private static final String CREATE_PARTITION_SQL =
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF users FOR VALUES FROM ('%s') TO ('%s')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Clock clock;
+
+    private final int lookaheadYears;
+
+    public UserPartitionMaintenance(JdbcTemplate jdbcTemplate, Clock clock,
+                                    @Value("${users.partitions.lookahead-years:10}") int lookaheadYears) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.lookaheadYears = lookaheadYears;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        createUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "${users.partitions.maintenance-cron:0 30 3 * * *}")
+    public void createUpcomingPartitions() {
+        try {
+            if (!isPartitioned()) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            // Not PostgreSQL, e.g. the H2 database of the tests.
+            return;
+        }
+        for (String statement : createStatements(LocalDate.now(clock))) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (DataAccessException e) {
+                log.warn("Could not create partition of users: {}", e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Statements that create every missing decade partition from the decade of {@code today} up to
+     * {@code lookaheadYears} later.
+     */
+    List<String> createStatements(LocalDate today) {
+        List<String> statements = new ArrayList<>();
+        int first = Math.floorDiv(today.getYear(), PARTITION_YEARS) * PARTITION_YEARS;
+        int last = Math.floorDiv(today.getYear() + lookaheadYears, PARTITION_YEARS) * PARTITION_YEARS;
+        for (int decade = first; decade <= last; decade += PARTITION_YEARS) {
+            statements.add(CREATE_PARTITION_SQL.formatted("users_p" + decade,
+                    LocalDate.of(decade, 1, 1), LocalDate.of(decade + PARTITION_YEARS, 1, 1)));
+        }
+        return statements;
+    }
+
+    private boolean isPartitioned() {
+        Long partitioned = jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Long.class);
+        return partitioned != null && partitioned > 0;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.entity.UserEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One page of a birth date range query together with its version: the first 128 bits of the SHA-256 of the
+ * users' properties, which changes whenever anything on the page does. The version is computed once when the page
+ * is loaded and is kept with it in {@link UserRangeQueryCache}, so serving a cached page costs no hashing.
+ */
+public record UserRangePage(List<UserEntity> users, String version) {
+
+    private static final byte FIELD_SEPARATOR = 0;
+
+    private static final byte NULL_FIELD = 1;
+
+    public static UserRangePage of(List<UserEntity> users) {
+        MessageDigest digest = sha256();
+        for (UserEntity user : users) {
+            update(digest, user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(), user.getBirthDate(),
+                    user.getAddress(), user.getPhoneNumber());
+        }
+        return new UserRangePage(List.copyOf(users), HexFormat.of().formatHex(digest.digest(), 0, 16));
+    }
+
+    private static void update(MessageDigest digest, Object... fields) {
+        for (Object field : fields) {
+            if (field == null) {
+                digest.update(NULL_FIELD);
+            } else {
+                digest.update(Objects.toString(field).getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(FIELD_SEPARATOR);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported.", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.config.ReplicaRoutingDataSource;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.event.UsersBulkLoadedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches pages of birth date range queries. A write only invalidates the pages it can affect:
+ * pages whose range contains the new or the previous birth date, and pages that already contain the written user.
+ * Every page of such a range is dropped, since a row entering or leaving page 0 shifts all later pages.
+ * Pages loaded from a read replica are not cached, since the replica may still lag behind an invalidation.
+ */
+@Component
+public class UserRangeQueryCache {
+
+    private final Cache<RangeQueryKey, UserRangePage> cache;
+
+    /**
+     * Incremented on every invalidation so that a page loaded concurrently with a write is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserRangeQueryCache(@Value("${users.range-cache.maximum-size:1000}") long maximumSize,
+                               @Value("${users.range-cache.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public UserRangePage get(LocalDate from, LocalDate to, Pageable pageable, Supplier<List<UserEntity>> loader) {
+        RangeQueryKey key = RangeQueryKey.of(from, to, pageable);
+        UserRangePage page = cache.getIfPresent(key);
+        if (page != null) {
+            return page;
+        }
+        long loadedAt = generation.get();
+        page = UserRangePage.of(loader.get());
+        if (ReplicaRoutingDataSource.isReadingFromReplica()) {
+            return page;
+        }
+        cache.put(key, page);
+        if (generation.get() != loadedAt) {
+            cache.invalidate(key);
+        }
+        return page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        generation.incrementAndGet();
+        cache.asMap().entrySet().removeIf(entry -> entry.getKey().contains(event.birthDate())
+                || entry.getKey().contains(event.previousBirthDate())
+                || entry.getValue().users().stream().anyMatch(user -> user.getId().equals(event.id())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersBulkLoaded(UsersBulkLoadedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    record RangeQueryKey(LocalDate from, LocalDate to, int pageNumber, int pageSize, Sort sort) {
+
+        static RangeQueryKey of(LocalDate from, LocalDate to, Pageable pageable) {
+            if (pageable.isUnpaged()) {
+                return new RangeQueryKey(from, to, -1, -1, pageable.getSort());
+            }
+            return new RangeQueryKey(from, to, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        }
+
+        boolean contains(LocalDate birthDate) {
+            return birthDate != null && !birthDate.isBefore(from) && !birthDate.isAfter(to);
+        }
+    }
+}
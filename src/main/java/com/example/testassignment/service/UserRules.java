@@ -0,0 +1,85 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.exception.UserNotAdultException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Domain rules for user data that are shared by every write and query path,
+ * blocking ({@link UserServiceImpl}) and reactive ({@link ReactiveUserServiceImpl}) alike.
+ * <p>
+ * Date-dependent checks compare against values computed once per day, so on the hot path they cost
+ * one clock read and one date comparison and allocate nothing.
+ */
+@Component
+public class UserRules {
+
+    public static final String NOT_ADULT_MESSAGE = "User must be at least 18 years old.";
+
+    public static final String BIRTH_DATE_RANGE_MESSAGE = "'From' date must be less than 'To' date.";
+
+    private final int minimumAdultAge;
+
+    private final Clock clock;
+
+    private volatile Day day;
+
+    @Autowired
+    public UserRules(@Value("${minimum.adult.age}") int minimumAdultAge, Clock clock) {
+        this.minimumAdultAge = minimumAdultAge;
+        this.clock = clock;
+        this.day = computeDay();
+    }
+
+    public UserRules(int minimumAdultAge) {
+        this(minimumAdultAge, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Equivalent to {@code Period.between(birthDate, today).getYears() >= minimumAdultAge}: a person is adult
+     * from the day their birthday turns {@code minimumAdultAge}, and someone born on 29 February from 1 March.
+     */
+    public boolean isAdult(LocalDate birthDate) {
+        return !birthDate.isAfter(currentDay().latestAdultBirthDate());
+    }
+
+    public LocalDate today() {
+        return currentDay().today();
+    }
+
+    public void checkAdult(LocalDate birthDate) {
+        if (!isAdult(birthDate)) {
+            throw new UserNotAdultException(NOT_ADULT_MESSAGE);
+        }
+    }
+
+    public void checkBirthDateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BirthDateRangeException(BIRTH_DATE_RANGE_MESSAGE);
+        }
+    }
+
+    private Day currentDay() {
+        Day current = day;
+        if (clock.millis() >= current.endMillis()) {
+            // Racing threads compute the same value, so a lost update is harmless.
+            current = computeDay();
+            day = current;
+        }
+        return current;
+    }
+
+    private Day computeDay() {
+        LocalDate today = LocalDate.now(clock);
+        long endMillis = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        return new Day(today, today.minusYears(minimumAdultAge), endMillis);
+    }
+
+    private record Day(LocalDate today, LocalDate latestAdultBirthDate, long endMillis) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.config.CacheConfig;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.event.UsersBulkLoadedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps Hibernate's second-level cache coherent with writes it does not perform itself: JDBC inserts of
+ * write-behind, bulk import and ingestion, and R2DBC writes of the reactive API. Writes through
+ * {@code UserRepository} are already handled by Hibernate, for which the extra eviction only costs a miss.
+ */
+@Component
+@ConditionalOnProperty(name = "users.l2-cache.enabled", havingValue = "true")
+public class UserSecondLevelCacheInvalidator {
+
+    private final Cache cache;
+
+    public UserSecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.evictEntityData(UserEntity.class, event.id());
+        cache.evictQueryRegion(CacheConfig.USERS_BY_BIRTH_DATE_REGION);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersBulkLoaded(UsersBulkLoadedEvent event) {
+        cache.evictQueryRegion(CacheConfig.USERS_BY_BIRTH_DATE_REGION);
+    }
+}
@@ -1,18 +1,60 @@
 package com.example.testassignment.service;
 
+import com.example.testassignment.dto.UserCursor;
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserField;
+import com.example.testassignment.dto.UserImportResultDto;
 import com.example.testassignment.entity.UserEntity;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface UserService {
 
     UserEntity saveUser(UserEntity user);
 
+    UserEntity getUserById(Integer id);
+
     UserEntity updateUser(UserEntity user);
 
-    List<UserEntity> getAllUsersByBirthDateRange(LocalDate from, LocalDate to, Pageable pageable);
+    /**
+     * Writes only the non-null fields of {@code patch} to the user with the given id.
+     */
+    void patchUser(Integer id, UserEntity patch);
+
+    /**
+     * Validates and inserts users in JDBC batches. Invalid rows and rows the database rejects are reported
+     * by their zero-based position in {@code users} and do not prevent the remaining rows from being imported.
+     */
+    UserImportResultDto importUsers(Iterator<UserEntity> users);
+
+    /**
+     * Users born between {@code from} and {@code to} on the requested page, with a version of the page that
+     * changes whenever one of its users does.
+     */
+    UserRangePage getAllUsersByBirthDateRange(LocalDate from, LocalDate to, Pageable pageable);
+
+    /**
+     * Projection variant of {@link #getAllUsersByBirthDateRange}: reads only the selected {@code fields}
+     * from the database and leaves the other properties of the returned users {@code null}.
+     */
+    List<UserDto> getUsersByBirthDateRange(LocalDate from, LocalDate to, Set<UserField> fields, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #getAllUsersByBirthDateRange}: returns at most {@code size} users ordered by
+     * {@code (birthDate, id)} that follow {@code after}, or the first page when {@code after} is {@code null}.
+     */
+    List<UserEntity> getUsersByBirthDateRangeAfter(LocalDate from, LocalDate to, UserCursor after, int size);
+
+    /**
+     * Passes every user born within the range to {@code action} one at a time, in {@code (birthDate, id)} order,
+     * without holding the whole result in memory.
+     */
+    void exportUsersByBirthDateRange(LocalDate from, LocalDate to, Consumer<UserEntity> action);
 
     void deleteById(Integer id);
 }
@@ -1,67 +1,302 @@
 package com.example.testassignment.service;
 
+import com.example.testassignment.config.UserMetrics;
+import com.example.testassignment.dto.UserCursor;
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserField;
+import com.example.testassignment.dto.UserImportErrorDto;
+import com.example.testassignment.dto.UserImportResultDto;
 import com.example.testassignment.entity.UserEntity;
-import com.example.testassignment.exception.BirthDateRangeException;
-import com.example.testassignment.exception.UserNotAdultException;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.event.UsersBulkLoadedEvent;
+import com.example.testassignment.exception.EmailAlreadyExistsException;
 import com.example.testassignment.exception.UserNotFoundException;
+import com.example.testassignment.repository.UserOutboxRepository;
 import com.example.testassignment.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.Period;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "users.service", description = "Latency of user service methods")
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
-    @Value("${minimum.adult.age}")
-    private int minimumAdultAge;
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final UserRangeQueryCache rangeQueryCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final UserRules userRules;
+
+    private final UserMetrics userMetrics;
+
+    private final UserEmailFilter emailFilter;
+
+    private final UserBirthDateIndex birthDateIndex;
+
+    private final UserOutboxRepository outboxRepository;
+
+    private final UserNearCache nearCache;
+
+    @Value("${users.import.batch-size:500}")
+    private int importBatchSize;
 
     @Override
+    @Transactional
     public UserEntity saveUser(UserEntity user) {
-        if (!isUserAdult(user.getBirthDate(), minimumAdultAge)) {
-            throw new UserNotAdultException("User must be at least 18 years old.");
+        userRules.checkAdult(user.getBirthDate());
+        checkEmailIsFree(user.getEmail());
+        UserEntity savedUser = translatingEmailConflicts(() -> {
+            UserEntity saved = userRepository.save(user);
+            userRepository.flush();
+            return saved;
+        });
+        emailFilter.add(savedUser.getEmail());
+        publish(UserChangedEvent.created(savedUser.getId(), savedUser.getBirthDate()));
+        return savedUser;
+    }
+
+    /**
+     * Records the change in the outbox, in the current transaction, and notifies in-process listeners.
+     */
+    private void publish(UserChangedEvent event) {
+        outboxRepository.append(event);
+        eventPublisher.publishEvent(event);
+    }
+
+    /**
+     * Goes to the database only when the email filter cannot rule out that the email is taken.
+     */
+    private void checkEmailIsFree(String email) {
+        if (!emailFilter.mightExist(email)) {
+            return;
+        }
+        if (userRepository.existsByEmailIgnoreCase(email)) {
+            throw new EmailAlreadyExistsException("User with this email already exists.");
+        }
+        emailFilter.recordFalsePositive();
+    }
+
+    /**
+     * Runs a write and reports a violation of a unique email index like {@link #checkEmailIsFree} does. The check
+     * cannot see emails taken by concurrent transactions, and updates and patches do not run it at all.
+     */
+    private static <T> T translatingEmailConflicts(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            throw UserEmailConflicts.translate(e);
         }
-        return userRepository.save(user);
     }
 
     @Override
-    public UserEntity updateUser(UserEntity user) {
-        boolean isExists = userRepository.existsById(user.getId());
+    @Transactional(readOnly = true)
+    public UserEntity getUserById(Integer id) {
+        return nearCache.get(id, () -> userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found.")));
+    }
 
-        if (!isExists) {
+    @Override
+    @Transactional
+    public UserEntity updateUser(UserEntity user) {
+        if (user.getId() == null) {
             throw new UserNotFoundException("User not found.");
         }
-        return userRepository.save(user);
+        LocalDate previousBirthDate = translatingEmailConflicts(
+                () -> userRepository.updateReturningPreviousBirthDate(user))
+                .orElseThrow(() -> new UserNotFoundException("User not found."));
+        emailFilter.add(user.getEmail());
+        publish(UserChangedEvent.updated(user.getId(), previousBirthDate, user.getBirthDate()));
+        return user;
     }
 
     @Override
-    public List<UserEntity> getAllUsersByBirthDateRange(LocalDate from, LocalDate to, Pageable pageable) {
-        if (from.isAfter(to)) {
-            throw new BirthDateRangeException("'From' date must be less than 'To' date.");
+    @Transactional
+    public void patchUser(Integer id, UserEntity patch) {
+        LocalDate previousBirthDate = translatingEmailConflicts(
+                () -> userRepository.patchReturningPreviousBirthDate(id, patch))
+                .orElseThrow(() -> new UserNotFoundException("User not found."));
+        if (patch.getEmail() != null) {
+            emailFilter.add(patch.getEmail());
         }
-        return userRepository.findByBirthDateBetween(from, to, pageable);
+        // An event without birth dates tells listeners that the user kept its place in every range.
+        publish(UserChangedEvent.updated(id, patch.getBirthDate() == null ? null : previousBirthDate, patch.getBirthDate()));
     }
 
     @Override
-    public void deleteById(Integer id) {
-        UserEntity obtainedUser = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException("User not found."));
-        userRepository.deleteById(obtainedUser.getId());
+    public UserImportResultDto importUsers(Iterator<UserEntity> users) {
+        List<UserImportErrorDto> errors = new ArrayList<>();
+        List<UserEntity> batch = new ArrayList<>();
+        List<Integer> batchRows = new ArrayList<>();
+        int row = 0;
+        int imported = 0;
+        while (users.hasNext()) {
+            UserEntity user = users.next();
+            user.setId(null);
+            String error = validateForImport(user);
+            if (error != null) {
+                errors.add(new UserImportErrorDto(row, error));
+            } else {
+                batch.add(user);
+                batchRows.add(row);
+            }
+            row++;
+            if (batch.size() >= importBatchSize) {
+                imported += saveBatch(batch, batchRows, errors);
+                batch.clear();
+                batchRows.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += saveBatch(batch, batchRows, errors);
+        }
+        if (imported > 0) {
+            eventPublisher.publishEvent(new UsersBulkLoadedEvent(imported));
+        }
+        return UserImportResultDto.builder()
+                .received(row)
+                .imported(imported)
+                .errors(errors)
+                .build();
+    }
+
+    private String validateForImport(UserEntity user) {
+        Set<ConstraintViolation<UserEntity>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!userRules.isAdult(user.getBirthDate())) {
+            return UserRules.NOT_ADULT_MESSAGE;
+        }
+        return null;
+    }
+
+    /**
+     * Inserts the batch in one transaction. If the database rejects it, the rows are retried one by one
+     * so that only the offending rows are reported as failed.
+     */
+    private int saveBatch(List<UserEntity> batch, List<Integer> batchRows, List<UserImportErrorDto> errors) {
+        try {
+            userRepository.saveAll(batch);
+            batch.forEach(user -> emailFilter.add(user.getEmail()));
+            return batch.size();
+        } catch (DataAccessException e) {
+            batch.forEach(user -> user.setId(null));
+        } finally {
+            entityManager.clear();
+        }
+
+        int saved = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                userRepository.save(batch.get(i));
+                emailFilter.add(batch.get(i).getEmail());
+                saved++;
+            } catch (DataAccessException e) {
+                errors.add(new UserImportErrorDto(batchRows.get(i), e.getMostSpecificCause().getMessage()));
+            } finally {
+                entityManager.clear();
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserRangePage getAllUsersByBirthDateRange(LocalDate from, LocalDate to, Pageable pageable) {
+        userRules.checkBirthDateRange(from, to);
+        return rangeQueryCache.get(from, to, pageable,
+                () -> userMetrics.recordRangeRows(findByBirthDateBetween(from, to, pageable)));
+    }
 
+    /**
+     * Takes the ids of the page from the birth date index and loads only those rows. Rows whose birth date left
+     * the range after the index answered are dropped. Falls back to the range query when the index cannot answer
+     * the page.
+     */
+    private List<UserEntity> findByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable) {
+        Optional<List<Integer>> ids = birthDateIndex.findIds(from, to, pageable);
+        if (ids.isEmpty()) {
+            return userRepository.findByBirthDateBetween(from, to, pageable);
+        }
+        Map<Integer, UserEntity> usersById = userRepository.findByIdInAndBirthDateBetween(ids.get(), from, to).stream()
+                .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+        return ids.get().stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> getUsersByBirthDateRange(LocalDate from, LocalDate to, Set<UserField> fields, Pageable pageable) {
+        userRules.checkBirthDateRange(from, to);
+        return userMetrics.recordRangeRows(userRepository.findFieldsByBirthDateBetween(from, to, fields, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserEntity> getUsersByBirthDateRangeAfter(LocalDate from, LocalDate to, UserCursor after, int size) {
+        userRules.checkBirthDateRange(from, to);
+        if (after == null || after.birthDate().isBefore(from)) {
+            return userMetrics.recordRangeRows(
+                    userRepository.findByBirthDateRangeAfter(to, from, Integer.MIN_VALUE, PageRequest.ofSize(size)));
+        }
+        return userMetrics.recordRangeRows(
+                userRepository.findByBirthDateRangeAfter(to, after.birthDate(), after.id(), PageRequest.ofSize(size)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsersByBirthDateRange(LocalDate from, LocalDate to, Consumer<UserEntity> action) {
+        userRules.checkBirthDateRange(from, to);
+        try (Stream<UserEntity> users = userRepository.streamByBirthDateBetween(from, to)) {
+            users.forEach(user -> {
+                action.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
 
-    public boolean isUserAdult(LocalDate birthDate, int minimumAdultAge) {
-        LocalDate currentDate = LocalDate.now();
-        int age = Period.between(birthDate, currentDate).getYears();
-        return age >= minimumAdultAge;
+    @Override
+    @Transactional
+    public void deleteById(Integer id) {
+        LocalDate previousBirthDate = userRepository.deleteReturningBirthDate(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found."));
+        publish(UserChangedEvent.deleted(id, previousBirthDate));
     }
 }
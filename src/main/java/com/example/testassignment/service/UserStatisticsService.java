@@ -0,0 +1,21 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.UserHistogramDto;
+
+import java.time.LocalDate;
+
+public interface UserStatisticsService {
+
+    /**
+     * Counts users born between {@code from} and {@code to} per calendar year of birth.
+     */
+    UserHistogramDto getBirthYearHistogram(LocalDate from, LocalDate to);
+
+    /**
+     * Counts users born between {@code from} and {@code to} per band of {@code bandWidth} years of age,
+     * where age is completed years as of today.
+     *
+     * @throws IllegalArgumentException if {@code bandWidth} is not positive
+     */
+    UserHistogramDto getAgeBandHistogram(LocalDate from, LocalDate to, int bandWidth);
+}
@@ -0,0 +1,80 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.HistogramBucketDto;
+import com.example.testassignment.dto.UserHistogramDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class UserStatisticsServiceImpl implements UserStatisticsService {
+
+    private final UserBirthDateHistogram histogram;
+
+    private final UserRules userRules;
+
+    @Override
+    public UserHistogramDto getBirthYearHistogram(LocalDate from, LocalDate to) {
+        userRules.checkBirthDateRange(from, to);
+        List<HistogramBucketDto> buckets = new ArrayList<>();
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            LocalDate bucketFrom = max(from, LocalDate.of(year, 1, 1));
+            LocalDate bucketTo = min(to, LocalDate.of(year, 12, 31));
+            buckets.add(bucket(String.valueOf(year), bucketFrom, bucketTo));
+        }
+        return histogram(from, to, buckets);
+    }
+
+    @Override
+    public UserHistogramDto getAgeBandHistogram(LocalDate from, LocalDate to, int bandWidth) {
+        if (bandWidth <= 0) {
+            throw new IllegalArgumentException("Band width must be positive: " + bandWidth);
+        }
+        userRules.checkBirthDateRange(from, to);
+        LocalDate today = userRules.today();
+        List<HistogramBucketDto> buckets = new ArrayList<>();
+        // People aged [age, age + bandWidth) were born in (today - (age + bandWidth) years, today - age years].
+        for (int age = 0; ; age += bandWidth) {
+            LocalDate bandTo = today.minusYears(age);
+            LocalDate bandFrom = today.minusYears(age + bandWidth).plusDays(1);
+            if (bandTo.isBefore(from)) {
+                break;
+            }
+            if (!bandFrom.isAfter(to)) {
+                String label = age + "-" + (age + bandWidth - 1);
+                buckets.add(bucket(label, max(from, bandFrom), min(to, bandTo)));
+            }
+        }
+        return histogram(from, to, buckets);
+    }
+
+    private HistogramBucketDto bucket(String label, LocalDate from, LocalDate to) {
+        return HistogramBucketDto.builder()
+                .label(label)
+                .from(from)
+                .to(to)
+                .count(histogram.count(from, to))
+                .build();
+    }
+
+    private static UserHistogramDto histogram(LocalDate from, LocalDate to, List<HistogramBucketDto> buckets) {
+        return UserHistogramDto.builder()
+                .from(from)
+                .to(to)
+                .total(buckets.stream().mapToLong(HistogramBucketDto::getCount).sum())
+                .buckets(buckets)
+                .build();
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
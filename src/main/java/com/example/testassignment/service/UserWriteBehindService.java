@@ -0,0 +1,26 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.UserWriteStatusDto;
+import com.example.testassignment.entity.UserEntity;
+
+/**
+ * Write-behind creation of users: a user is accepted into an in-memory queue with its final id and written
+ * to the database later, in batches, by a background writer.
+ */
+public interface UserWriteBehindService {
+
+    /**
+     * Whether {@code users.write-behind.enabled} is set; if not, users must be saved through {@link UserService}.
+     */
+    boolean isEnabled();
+
+    /**
+     * Checks the user like {@link UserService#saveUser}, assigns its id and queues it for writing.
+     *
+     * @return the queued user with its id
+     * @throws com.example.testassignment.exception.UserQueueFullException if the queue is full
+     */
+    UserEntity enqueue(UserEntity user);
+
+    UserWriteStatusDto getStatus(Integer id);
+}
@@ -0,0 +1,290 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.UserWriteStatusDto;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.exception.EmailAlreadyExistsException;
+import com.example.testassignment.exception.UserQueueFullException;
+import com.example.testassignment.repository.SequenceBlock;
+import com.example.testassignment.repository.UserOutboxRepository;
+import com.example.testassignment.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues new users in a bounded in-memory queue and writes them to {@code users} from a single background
+ * thread in JDBC batches of up to {@code users.write-behind.batch-size} rows.
+ * <p>
+ * Ids come from blocks of {@code users_id_seq} reserved in the same way as by Hibernate, so a queued user already
+ * has its final id. A batch the database rejects is retried row by row; rows that still fail, e.g. because
+ * another request took the email in the meantime, are reported as {@code FAILED} by {@link #getStatus} for
+ * {@code users.write-behind.failure-retention}. Queued users are lost if the process dies before they are written;
+ * on an orderly shutdown the queue is drained first.
+ */
+@Slf4j
+@Service
+public class UserWriteBehindServiceImpl implements UserWriteBehindService {
+
+    private static final String NEXT_ID_BLOCK_SQL = "SELECT nextval('users_id_seq')";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (id, email, first_name, last_name, birth_date, address, phone_number) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final UserRepository userRepository;
+
+    private final UserOutboxRepository outboxRepository;
+
+    private final UserRules userRules;
+
+    private final UserEmailFilter emailFilter;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final Duration flushInterval;
+
+    private final SequenceBlock idBlock = new SequenceBlock(UserEntity.ID_ALLOCATION_SIZE);
+
+    private final BlockingQueue<UserEntity> queue;
+
+    /**
+     * Users that are queued or being written, by id.
+     */
+    private final Map<Integer, UserEntity> pending = new ConcurrentHashMap<>();
+
+    private final Cache<Integer, String> failures;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+            .name("user-write-behind")
+            .daemon()
+            .factory());
+
+    private final Counter written;
+
+    private final Counter failed;
+
+    public UserWriteBehindServiceImpl(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                      UserRepository userRepository, UserOutboxRepository outboxRepository,
+                                      UserRules userRules, UserEmailFilter emailFilter,
+                                      ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                                      @Value("${users.write-behind.enabled:false}") boolean enabled,
+                                      @Value("${users.write-behind.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${users.write-behind.batch-size:500}") int batchSize,
+                                      @Value("${users.write-behind.flush-interval:100ms}") Duration flushInterval,
+                                      @Value("${users.write-behind.failure-retention:1h}") Duration failureRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.outboxRepository = outboxRepository;
+        this.userRules = userRules;
+        this.emailFilter = emailFilter;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(queueCapacity)
+                .expireAfterWrite(failureRetention)
+                .build();
+        Gauge.builder("users.write.behind.queue", queue, BlockingQueue::size)
+                .description("Users waiting to be written to the database")
+                .register(meterRegistry);
+        this.written = writeCounter(meterRegistry, "written");
+        this.failed = writeCounter(meterRegistry, "failed");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public UserEntity enqueue(UserEntity user) {
+        userRules.checkAdult(user.getBirthDate());
+        checkEmailIsFree(user.getEmail());
+        user.setId(nextId());
+        pending.put(user.getId(), user);
+        if (!queue.offer(user)) {
+            pending.remove(user.getId());
+            throw new UserQueueFullException("Too many pending users, please retry later.");
+        }
+        emailFilter.add(user.getEmail());
+        return user;
+    }
+
+    @Override
+    public UserWriteStatusDto getStatus(Integer id) {
+        UserWriteStatusDto.Status status;
+        String message = null;
+        if (pending.containsKey(id)) {
+            status = UserWriteStatusDto.Status.PENDING;
+        } else if ((message = failures.getIfPresent(id)) != null) {
+            status = UserWriteStatusDto.Status.FAILED;
+        } else if (userRepository.existsById(id)) {
+            status = UserWriteStatusDto.Status.PERSISTED;
+        } else {
+            status = UserWriteStatusDto.Status.NOT_FOUND;
+        }
+        return UserWriteStatusDto.builder()
+                .id(id)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            writer.execute(this::drainContinuously);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdownNow();
+        writer.awaitTermination(flushInterval.toMillis() * 10, TimeUnit.MILLISECONDS);
+        List<UserEntity> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void drainContinuously() {
+        List<UserEntity> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                UserEntity first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // Rows still queued are written by shutdown().
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Writing queued users failed", e);
+                batch.stream().filter(user -> pending.containsKey(user.getId())).forEach(user -> failed(user, e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch and its outbox entries in one transaction, falling back to one transaction per row if the
+     * database rejects it. Every row ends up persisted or failed, whatever the cause, including transactions that
+     * cannot even be started; a row left pending would be reported as such forever.
+     */
+    void write(List<UserEntity> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), UserWriteBehindServiceImpl::setValues);
+                outboxRepository.appendAll(batch.stream().map(UserWriteBehindServiceImpl::created).toList());
+            });
+            batch.forEach(this::persisted);
+            return;
+        } catch (RuntimeException e) {
+            log.debug("Batch of {} queued users was rejected, retrying row by row", batch.size(), e);
+        }
+        for (UserEntity user : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(INSERT_SQL, ps -> setValues(ps, user));
+                    outboxRepository.append(created(user));
+                });
+                persisted(user);
+            } catch (RuntimeException e) {
+                failed(user, e);
+            }
+        }
+    }
+
+    private void failed(UserEntity user, RuntimeException cause) {
+        failures.put(user.getId(), String.valueOf(NestedExceptionUtils.getMostSpecificCause(cause).getMessage()));
+        pending.remove(user.getId());
+        failed.increment();
+    }
+
+    private void persisted(UserEntity user) {
+        pending.remove(user.getId());
+        written.increment();
+        eventPublisher.publishEvent(created(user));
+    }
+
+    private static UserChangedEvent created(UserEntity user) {
+        return UserChangedEvent.created(user.getId(), user.getBirthDate());
+    }
+
+    /**
+     * Goes to the database only when the email filter cannot rule out that the email is taken.
+     */
+    private void checkEmailIsFree(String email) {
+        if (!emailFilter.mightExist(email)) {
+            return;
+        }
+        if (userRepository.existsByEmailIgnoreCase(email)) {
+            throw new EmailAlreadyExistsException("User with this email already exists.");
+        }
+        emailFilter.recordFalsePositive();
+    }
+
+    private int nextId() {
+        return idBlock.tryNext()
+                .orElseGet(() -> idBlock.refill(jdbcTemplate.queryForObject(NEXT_ID_BLOCK_SQL, Long.class)));
+    }
+
+    private static void setValues(PreparedStatement ps, UserEntity user) throws SQLException {
+        ps.setInt(1, user.getId());
+        ps.setString(2, user.getEmail());
+        ps.setString(3, user.getFirstName());
+        ps.setString(4, user.getLastName());
+        ps.setDate(5, Date.valueOf(user.getBirthDate()));
+        ps.setString(6, user.getAddress());
+        ps.setString(7, user.getPhoneNumber());
+    }
+
+    private static Counter writeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("users.write.behind.rows")
+                .description("Queued users written to the database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.testassignment.util;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.service.UserRules;
+import jakarta.validation.ConstraintViolation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.util.regex.Pattern;
+
+/**
+ * Hand-written equivalent of the Bean Validation constraints declared on {@link UserDto}, producing the same
+ * field errors and messages without walking the constraint metadata on every request.
+ * <p>
+ * Email addresses are matched with the patterns Hibernate Validator uses for plain ASCII addresses. Quoted
+ * local parts, address literals and internationalized addresses are rare, and for those the check is delegated
+ * to Bean Validation so the result is always the same as with {@code @Email}.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDtoValidator implements Validator {
+
+    private static final String LOCAL_PART_ATOM = "[a-z0-9!#$%&'*+/=?^_`{|}~-]+";
+
+    private static final Pattern LOCAL_PART = Pattern.compile(
+            LOCAL_PART_ATOM + "(?:\\." + LOCAL_PART_ATOM + ")*", Pattern.CASE_INSENSITIVE);
+
+    private static final String DOMAIN_CHAR = "[a-z0-9!#$%&'*+/=?^_`{|}~]";
+
+    private static final String DOMAIN_LABEL = "(?:" + DOMAIN_CHAR + "-*)*" + DOMAIN_CHAR + "+";
+
+    private static final Pattern DOMAIN = Pattern.compile(
+            DOMAIN_LABEL + "(?:\\." + DOMAIN_LABEL + ")*", Pattern.CASE_INSENSITIVE);
+
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+
+    private static final int MAX_DOMAIN_LENGTH = 255;
+
+    private static final int MAX_DOMAIN_LABEL_LENGTH = 63;
+
+    private final UserRules userRules;
+
+    private final jakarta.validation.Validator beanValidator;
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return UserDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        UserDto dto = (UserDto) target;
+        if (dto.getEmail() == null) {
+            errors.rejectValue("email", "NotNull", "Email should be not empty");
+        } else if (!isValidEmail(dto.getEmail())) {
+            errors.rejectValue("email", "Email", "Invalid email address");
+        }
+        if (dto.getFirstName() == null) {
+            errors.rejectValue("firstName", "NotNull", "First Name should be not empty");
+        }
+        if (dto.getLastName() == null) {
+            errors.rejectValue("lastName", "NotNull", "Last Name should be not empty");
+        }
+        if (dto.getBirthDate() == null) {
+            errors.rejectValue("birthDate", "NotNull", "Birth date should be not empty");
+        } else if (!dto.getBirthDate().isBefore(userRules.today())) {
+            errors.rejectValue("birthDate", "Past", "Birth date must be in the past");
+        }
+    }
+
+    boolean isValidEmail(String email) {
+        if (email.isEmpty()) {
+            return true;
+        }
+        if (!isPlainAscii(email)) {
+            return beanValidator.validateValue(UserDto.class, "email", email).stream()
+                    .map(ConstraintViolation::getConstraintDescriptor)
+                    .noneMatch(descriptor -> descriptor.getAnnotation() instanceof jakarta.validation.constraints.Email);
+        }
+        int at = email.lastIndexOf('@');
+        if (at < 0) {
+            return false;
+        }
+        int domainLength = email.length() - at - 1;
+        if (at > MAX_LOCAL_PART_LENGTH || domainLength == 0 || domainLength > MAX_DOMAIN_LENGTH) {
+            return false;
+        }
+        if (!LOCAL_PART.matcher(email).region(0, at).matches()
+                || !DOMAIN.matcher(email).region(at + 1, email.length()).matches()) {
+            return false;
+        }
+        int labelStart = at + 1;
+        for (int i = labelStart; i <= email.length(); i++) {
+            if (i == email.length() || email.charAt(i) == '.') {
+                if (i - labelStart > MAX_DOMAIN_LABEL_LENGTH) {
+                    return false;
+                }
+                labelStart = i + 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the address avoids every feature the fast path does not implement: non-ASCII characters,
+     * quoted local parts and bracketed address literals.
+     */
+    private static boolean isPlainAscii(String email) {
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c >= 0x80 || c == '"' || c == '[' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
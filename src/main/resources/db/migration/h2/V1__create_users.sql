@@ -0,0 +1,14 @@
+-- H2 schema for tests and benchmarks; mirrors db/migration/postgresql.
+CREATE SEQUENCE IF NOT EXISTS users_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id           INTEGER      NOT NULL PRIMARY KEY,
+    email        VARCHAR(255) NOT NULL,
+    first_name   VARCHAR(255) NOT NULL,
+    last_name    VARCHAR(255) NOT NULL,
+    birth_date   DATE         NOT NULL,
+    address      VARCHAR(255),
+    phone_number VARCHAR(255),
+    -- H2 has no expression indexes, so the case-insensitive email key is indexed through a generated column.
+    email_lower  VARCHAR(255) GENERATED ALWAYS AS (LOWER(email))
+);
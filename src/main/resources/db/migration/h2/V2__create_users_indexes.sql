@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_users_birth_date_id ON users (birth_date, id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_lower ON users (email_lower);
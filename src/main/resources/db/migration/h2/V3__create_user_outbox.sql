@@ -0,0 +1,9 @@
+-- H2 schema for tests and benchmarks; mirrors db/migration/postgresql.
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id                  BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    change_type         VARCHAR(16)              NOT NULL,
+    user_id             INTEGER                  NOT NULL,
+    birth_date          DATE,
+    previous_birth_date DATE,
+    created_at          TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
@@ -0,0 +1,12 @@
+-- Increment must match UserEntity.ID_ALLOCATION_SIZE, which Hibernate's pooled optimizer relies on.
+CREATE SEQUENCE IF NOT EXISTS users_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id           INTEGER      NOT NULL PRIMARY KEY,
+    email        VARCHAR(255) NOT NULL,
+    first_name   VARCHAR(255) NOT NULL,
+    last_name    VARCHAR(255) NOT NULL,
+    birth_date   DATE         NOT NULL,
+    address      VARCHAR(255),
+    phone_number VARCHAR(255)
+);
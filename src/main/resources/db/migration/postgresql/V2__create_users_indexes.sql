@@ -0,0 +1,9 @@
+-- Built CONCURRENTLY so that applying this to a populated table does not block writes. That cannot run inside
+-- a transaction block, see the .conf file next to this script. A failed concurrent build leaves an INVALID index
+-- behind; SchemaVerifier refuses to start on one, and it has to be dropped before this script is re-run.
+
+-- Range and keyset queries: WHERE birth_date ... ORDER BY birth_date, id.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_birth_date_id ON users (birth_date, id);
+
+-- Emails are unique regardless of case.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_users_email_lower ON users (lower(email));
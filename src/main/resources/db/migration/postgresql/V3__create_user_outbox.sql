@@ -0,0 +1,9 @@
+-- Change events of users, written in the transaction of the change and removed once relayed.
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id                  BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    change_type         VARCHAR(16)              NOT NULL,
+    user_id             INTEGER                  NOT NULL,
+    birth_date          DATE,
+    previous_birth_date DATE,
+    created_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
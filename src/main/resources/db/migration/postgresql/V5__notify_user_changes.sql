@@ -0,0 +1,33 @@
+-- Tells every application node which users changed, so that cached copies are dropped on all nodes.
+-- The payload of channel users_changed is a comma-separated list of ids, or '*' when a statement touched
+-- more users than fit in one notification. Inserts are not announced: nodes never cache a missing user.
+CREATE FUNCTION users_notify_changes() RETURNS TRIGGER AS $$
+DECLARE
+    changed_count INTEGER;
+    changed_ids   TEXT;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        SELECT count(*), string_agg(id::TEXT, ',') INTO changed_count, changed_ids
+        FROM (SELECT DISTINCT id FROM old_rows LIMIT 501) changed;
+    ELSE
+        SELECT count(*), string_agg(id::TEXT, ',') INTO changed_count, changed_ids
+        FROM (SELECT DISTINCT id FROM new_rows LIMIT 501) changed;
+    END IF;
+    IF changed_count > 500 THEN
+        PERFORM pg_notify('users_changed', '*');
+    ELSIF changed_count > 0 THEN
+        PERFORM pg_notify('users_changed', changed_ids);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_notify_update
+    AFTER UPDATE ON users
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_notify_changes();
+
+CREATE TRIGGER users_notify_delete
+    AFTER DELETE ON users
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_notify_changes();
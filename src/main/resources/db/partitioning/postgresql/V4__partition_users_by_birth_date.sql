@@ -0,0 +1,92 @@
+-- Turns users into a table partitioned by birth decade, so that range queries only touch the partitions of the
+-- requested range and vacuum and index maintenance work on one decade at a time. Rewrites the whole table while
+-- holding an exclusive lock on it; run it in a maintenance window on a populated database.
+
+CREATE TABLE users_partitioned (
+    id           INTEGER      NOT NULL,
+    email        VARCHAR(255) NOT NULL,
+    first_name   VARCHAR(255) NOT NULL,
+    last_name    VARCHAR(255) NOT NULL,
+    birth_date   DATE         NOT NULL,
+    address      VARCHAR(255),
+    phone_number VARCHAR(255),
+    -- The key of a partitioned table must contain the partition key, so this alone would let two rows in
+    -- different partitions share an id; user_ids below keeps ids unique.
+    PRIMARY KEY (id, birth_date)
+) PARTITION BY RANGE (birth_date);
+
+CREATE TABLE users_before_1900 PARTITION OF users_partitioned FOR VALUES FROM (MINVALUE) TO ('1900-01-01');
+
+-- One partition per decade up to the current one. UserPartitionMaintenance adds later decades ahead of time.
+DO $$
+DECLARE
+    decade INTEGER;
+BEGIN
+    FOR decade IN 1900..(extract(YEAR FROM current_date)::INTEGER / 10 * 10) BY 10 LOOP
+        EXECUTE format('CREATE TABLE users_p%s PARTITION OF users_partitioned FOR VALUES FROM (%L) TO (%L)',
+                       decade, make_date(decade, 1, 1), make_date(decade + 10, 1, 1));
+    END LOOP;
+END
+$$;
+
+-- Catches birth dates of decades that have no partition yet.
+CREATE TABLE users_default PARTITION OF users_partitioned DEFAULT;
+
+LOCK TABLE users IN ACCESS EXCLUSIVE MODE;
+INSERT INTO users_partitioned SELECT id, email, first_name, last_name, birth_date, address, phone_number FROM users;
+
+-- A unique index on a partitioned table must contain the partition key, so emails cannot be kept unique by an
+-- index on users any more. user_emails holds one row per email and is kept in step with users by a trigger, so
+-- every writer, including COPY ingestion and the reactive stack, is covered.
+CREATE TABLE user_emails (
+    email_lower VARCHAR(255) NOT NULL,
+    user_id     INTEGER      NOT NULL,
+    CONSTRAINT uk_user_emails_email_lower PRIMARY KEY (email_lower)
+);
+INSERT INTO user_emails (email_lower, user_id) SELECT lower(email), id FROM users;
+
+-- Likewise for ids: user_ids holds one row per id, so that an id cannot be used in two partitions.
+CREATE TABLE user_ids (
+    user_id INTEGER NOT NULL,
+    CONSTRAINT pk_user_ids PRIMARY KEY (user_id)
+);
+INSERT INTO user_ids (user_id) SELECT id FROM users;
+
+DROP TABLE users;
+ALTER TABLE users_partitioned RENAME TO users;
+
+CREATE INDEX idx_users_birth_date_id ON users (birth_date, id);
+-- Case-insensitive email lookups; uniqueness is enforced by user_emails.
+CREATE INDEX idx_users_email_lower ON users (lower(email));
+
+CREATE FUNCTION users_sync_email() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM user_emails WHERE email_lower = lower(OLD.email) AND user_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO user_emails (email_lower, user_id) VALUES (lower(NEW.email), NEW.id);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_sync_email
+    AFTER INSERT OR DELETE OR UPDATE OF email ON users
+    FOR EACH ROW EXECUTE FUNCTION users_sync_email();
+
+CREATE FUNCTION users_sync_id() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM user_ids WHERE user_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO user_ids (user_id) VALUES (NEW.id);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_sync_id
+    AFTER INSERT OR DELETE OR UPDATE OF id ON users
+    FOR EACH ROW EXECUTE FUNCTION users_sync_id();
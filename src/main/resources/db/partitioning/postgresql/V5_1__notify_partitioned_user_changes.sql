@@ -0,0 +1,14 @@
+-- V4 replaces users, which drops the triggers of V5 when partitioning is enabled on a database that already
+-- has them and V4 is applied out of order. Puts them back on the partitioned table.
+DROP TRIGGER IF EXISTS users_notify_update ON users;
+DROP TRIGGER IF EXISTS users_notify_delete ON users;
+
+CREATE TRIGGER users_notify_update
+    AFTER UPDATE ON users
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_notify_changes();
+
+CREATE TRIGGER users_notify_delete
+    AFTER DELETE ON users
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_notify_changes();
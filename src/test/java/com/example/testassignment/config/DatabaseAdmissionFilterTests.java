@@ -0,0 +1,48 @@
+package com.example.testassignment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DatabaseAdmissionFilterTests {
+
+    @Test
+    @DisplayName("Test request admitted while permits are available functionality")
+    public void givenFreePermit_whenFilter_thenRequestIsPassedAndPermitIsReleased() throws Exception {
+        //given
+        DatabaseAdmissionFilter filterUnderTest = new DatabaseAdmissionFilter(1, Duration.ofMillis(10), new ObjectMapper());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        //when
+        filterUnderTest.doFilter(request, response, chain);
+        //then
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(filterUnderTest.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test request rejected when no permit frees up functionality")
+    public void givenNoFreePermit_whenFilter_thenServiceUnavailableResponse() throws Exception {
+        //given
+        DatabaseAdmissionFilter filterUnderTest = new DatabaseAdmissionFilter(0, Duration.ofMillis(10), new ObjectMapper());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        //when
+        filterUnderTest.doFilter(request, response, chain);
+        //then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(response.getContentAsString()).contains("Server is busy");
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.testassignment.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesFilterTests {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private final ReadYourWritesFilter filterUnderTest =
+            new ReadYourWritesFilter(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("Test write request sets stickiness cookie functionality")
+    public void givenWriteRequest_whenFilter_thenCookieIsSet() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //when
+        filterUnderTest.doFilter(request, response, new MockFilterChain());
+        //then
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getValue()).isEqualTo(Long.toString(NOW.plusSeconds(5).toEpochMilli()));
+    }
+
+    @Test
+    @DisplayName("Test read request with stickiness cookie functionality")
+    public void givenFreshCookie_whenFilter_thenRequestIsPinnedToPrimary() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW.plusSeconds(1).toEpochMilli())));
+        AtomicBoolean pinned = new AtomicBoolean();
+        //when
+        filterUnderTest.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                pinned.set(ReplicaRoutingDataSource.pinToPrimary(true)));
+        //then
+        assertThat(pinned).isTrue();
+        assertThat(ReplicaRoutingDataSource.pinToPrimary(false)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test read request with expired stickiness cookie functionality")
+    public void givenExpiredCookie_whenFilter_thenRequestIsNotPinned() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW.minusSeconds(1).toEpochMilli())));
+        AtomicBoolean pinned = new AtomicBoolean();
+        //when
+        filterUnderTest.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                pinned.set(ReplicaRoutingDataSource.pinToPrimary(false)));
+        //then
+        assertThat(pinned).isFalse();
+    }
+}
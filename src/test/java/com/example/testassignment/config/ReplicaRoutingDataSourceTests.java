@@ -0,0 +1,115 @@
+package com.example.testassignment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingDataSourceTests {
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    @DisplayName("Test route read-only transactions to replicas functionality")
+    public void givenReadOnlyTransaction_whenGetConnection_thenReplicasAreUsedInTurn() throws SQLException {
+        //given
+        ReplicaRoutingDataSource dataSourceUnderTest = new ReplicaRoutingDataSource(h2("primary"),
+                new ReplicaPool(List.of(h2("replica1"), h2("replica2")), ReplicaPool.Selection.ROUND_ROBIN));
+        //when
+        String write = url(dataSourceUnderTest);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        String firstRead = url(dataSourceUnderTest);
+        String secondRead = url(dataSourceUnderTest);
+        //then
+        assertThat(write).contains("primary");
+        assertThat(List.of(firstRead, secondRead)).containsExactlyInAnyOrder("jdbc:h2:mem:replica1", "jdbc:h2:mem:replica2");
+    }
+
+    @Test
+    @DisplayName("Test route read-only transaction pinned to primary functionality")
+    public void givenPinnedToPrimary_whenGetConnection_thenPrimaryIsUsed() throws SQLException {
+        //given
+        ReplicaRoutingDataSource dataSourceUnderTest = new ReplicaRoutingDataSource(h2("primary"),
+                new ReplicaPool(List.of(h2("replica1")), ReplicaPool.Selection.LEAST_CONNECTIONS));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        //when
+        boolean previous = ReplicaRoutingDataSource.pinToPrimary(true);
+        String read;
+        try {
+            read = url(dataSourceUnderTest);
+        } finally {
+            ReplicaRoutingDataSource.pinToPrimary(previous);
+        }
+        //then
+        assertThat(read).contains("primary");
+        assertThat(url(dataSourceUnderTest)).contains("replica1");
+    }
+
+    @Test
+    @DisplayName("Test eject unreachable replica functionality")
+    public void givenUnreachableReplica_whenGetConnection_thenReplicaIsEjectedAndPrimaryIsUsed() throws SQLException {
+        //given
+        ReplicaPool replicaPool = new ReplicaPool(List.of(h2("missing;IFEXISTS=TRUE")), ReplicaPool.Selection.ROUND_ROBIN);
+        ReplicaRoutingDataSource dataSourceUnderTest = new ReplicaRoutingDataSource(h2("primary"), replicaPool);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        //when
+        String read = url(dataSourceUnderTest);
+        //then
+        assertThat(read).contains("primary");
+        assertThat(replicaPool.healthyReplicas()).isZero();
+        assertThat(replicaPool.select()).isNull();
+    }
+
+    @Test
+    @DisplayName("Test transaction reading from replica is flagged until it completes functionality")
+    public void givenReadOnlyTransaction_whenGetReplicaConnection_thenTransactionIsFlaggedUntilCompletion() throws SQLException {
+        //given
+        ReplicaRoutingDataSource dataSourceUnderTest = new ReplicaRoutingDataSource(h2("primary"),
+                new ReplicaPool(List.of(h2("replica1")), ReplicaPool.Selection.ROUND_ROBIN));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        //when
+        boolean before = ReplicaRoutingDataSource.isReadingFromReplica();
+        url(dataSourceUnderTest);
+        boolean during = ReplicaRoutingDataSource.isReadingFromReplica();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+        //then
+        assertThat(before).isFalse();
+        assertThat(during).isTrue();
+        assertThat(ReplicaRoutingDataSource.isReadingFromReplica()).isFalse();
+    }
+
+    private HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name);
+        dataSource.setPoolName(name);
+        dataSource.setConnectionTimeout(250);
+        dataSource.setInitializationFailTimeout(-1);
+        dataSources.add(dataSource);
+        return dataSource;
+    }
+
+    private static String url(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
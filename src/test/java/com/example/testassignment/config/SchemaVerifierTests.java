@@ -0,0 +1,40 @@
+package com.example.testassignment.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(SchemaVerifier.class)
+public class SchemaVerifierTests {
+
+    @Autowired
+    private SchemaVerifier schemaVerifier;
+
+    @Test
+    @DisplayName("Test migrated schema has required indexes functionality")
+    public void givenMigratedSchema_whenFindProblems_thenNoneAreFound() {
+        //given
+        //when
+        List<String> problems = schemaVerifier.findProblems(SchemaVerifier.REQUIRED_INDEXES);
+        //then
+        assertThat(problems).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test schema without required index functionality")
+    public void givenIndexIsMissing_whenFindProblems_thenIndexIsReported() {
+        //given
+        List<String> requiredIndexes = List.of("idx_users_birth_date_id", "idx_users_missing");
+        //when
+        List<String> problems = schemaVerifier.findProblems(requiredIndexes);
+        //then
+        assertThat(problems).containsExactly("missing index idx_users_missing");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.testassignment.config;
+
+import com.example.testassignment.exception.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserMetricsTests {
+
+    @Test
+    @DisplayName("Test domain exception counters registered up front functionality")
+    public void givenNewMetrics_whenScraped_thenEveryDomainExceptionCounterIsZero() {
+        //given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        //when
+        new UserMetrics(meterRegistry);
+        //then
+        assertThat(meterRegistry.find("users.domain.exceptions").counters()).hasSize(7)
+                .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+
+    @Test
+    @DisplayName("Test count domain exception functionality")
+    public void givenUserNotFoundException_whenCountException_thenTaggedCounterIsIncremented() {
+        //given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserMetrics metricsUnderTest = new UserMetrics(meterRegistry);
+        //when
+        metricsUnderTest.countException(new UserNotFoundException("User not found."));
+        //then
+        assertThat(meterRegistry.get("users.domain.exceptions")
+                .tag("exception", "UserNotFoundException")
+                .counter()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test record range rows functionality")
+    public void givenRangeResult_whenRecordRangeRows_thenRowCountIsRecorded() {
+        //given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserMetrics metricsUnderTest = new UserMetrics(meterRegistry);
+        List<String> rows = List.of("a", "b", "c");
+        //when
+        List<String> result = metricsUnderTest.recordRangeRows(rows);
+        //then
+        assertThat(result).isSameAs(rows);
+        assertThat(meterRegistry.get("users.range.rows").summary().totalAmount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.testassignment.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SequenceBlockTests {
+
+    private final SequenceBlock blockUnderTest = new SequenceBlock(50);
+
+    @Test
+    @DisplayName("Test refill from fresh sequence functionality")
+    public void givenFreshSequence_whenRefillWithInitialValue_thenIdentifiersArePositive() {
+        //given
+        long initialValue = 1;
+        //when
+        int first = blockUnderTest.refill(initialValue);
+        OptionalInt second = blockUnderTest.tryNext();
+        int afterNextCall = blockUnderTest.refill(51);
+        //then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEmpty();
+        assertThat(afterNextCall).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test refill block functionality")
+    public void givenHiValue_whenRefill_thenBlockEndsAtHiValue() {
+        //given
+        long hiValue = 150;
+        //when
+        int first = blockUnderTest.refill(hiValue);
+        for (int i = 0; i < 49; i++) {
+            blockUnderTest.tryNext();
+        }
+        //then
+        assertThat(first).isEqualTo(101);
+        assertThat(blockUnderTest.tryNext()).isEmpty();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.testassignment.repository;
+
+import com.example.testassignment.event.UserChangeMessage;
+import com.example.testassignment.event.UserChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(UserOutboxRepository.class)
+public class UserOutboxRepositoryTests {
+
+    @Autowired
+    private UserOutboxRepository outboxRepository;
+
+    @Test
+    @DisplayName("Test append and lock outbox messages functionality")
+    public void givenAppendedEvents_whenLockBatch_thenMessagesAreReturnedInOrder() {
+        //given
+        outboxRepository.append(UserChangedEvent.created(1, LocalDate.of(1990, 5, 15)));
+        outboxRepository.appendAll(List.of(
+                UserChangedEvent.updated(1, LocalDate.of(1990, 5, 15), LocalDate.of(1991, 5, 15)),
+                UserChangedEvent.deleted(1, LocalDate.of(1991, 5, 15))));
+        //when
+        List<UserChangeMessage> messages = outboxRepository.lockBatch(10);
+        //then
+        assertThat(messages).extracting(UserChangeMessage::type).containsExactly(
+                UserChangedEvent.ChangeType.CREATED, UserChangedEvent.ChangeType.UPDATED, UserChangedEvent.ChangeType.DELETED);
+        assertThat(messages.get(1).previousBirthDate()).isEqualTo(LocalDate.of(1990, 5, 15));
+        assertThat(messages.get(1).birthDate()).isEqualTo(LocalDate.of(1991, 5, 15));
+        assertThat(messages).allSatisfy(message -> assertThat(message.createdAt()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("Test delete relayed outbox messages functionality")
+    public void givenLockedMessages_whenDelete_thenOutboxIsEmpty() {
+        //given
+        outboxRepository.append(UserChangedEvent.created(1, LocalDate.of(1990, 5, 15)));
+        List<UserChangeMessage> messages = outboxRepository.lockBatch(10);
+        //when
+        outboxRepository.delete(messages);
+        //then
+        assertThat(outboxRepository.lockBatch(10)).isEmpty();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.testassignment.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class UserPartitioningPostgresTests {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (id, email, first_name, last_name, birth_date) VALUES (?, ?, 'John', 'Doe', ?)";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16.3"));
+
+    private static JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applies the default migrations first and the partitioning afterwards, as when an existing database is
+     * partitioned by enabling {@code users.partitions.enabled}.
+     */
+    @BeforeAll
+    public static void migrate() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration/postgresql")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration/postgresql", "classpath:db/partitioning/postgresql")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .outOfOrder(true)
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+    }
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    @DisplayName("Test id used in another partition is rejected functionality")
+    public void givenUserInOneDecade_whenInsertSameIdInAnotherDecade_thenExceptionIsThrown() {
+        //given
+        jdbcTemplate.update(INSERT_SQL, 1, "john.doe@mail.com", LocalDate.of(1985, 8, 20));
+        //when
+        assertThrows(DataIntegrityViolationException.class, () ->
+                jdbcTemplate.update(INSERT_SQL, 1, "other.john@mail.com", LocalDate.of(1995, 8, 20)));
+        //then
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id = 1", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test ids follow users across partitions and deletes functionality")
+    public void givenUser_whenMovedToAnotherDecadeAndDeleted_thenIdCanBeReused() {
+        //given
+        jdbcTemplate.update(INSERT_SQL, 1, "john.doe@mail.com", LocalDate.of(1985, 8, 20));
+        //when
+        jdbcTemplate.update("UPDATE users SET birth_date = ? WHERE id = 1", LocalDate.of(1995, 8, 20));
+        jdbcTemplate.update("UPDATE users SET id = 2 WHERE id = 1");
+        jdbcTemplate.update(INSERT_SQL, 1, "other.john@mail.com", LocalDate.of(1975, 8, 20));
+        jdbcTemplate.update("DELETE FROM users WHERE id = 2");
+        //then
+        assertThat(jdbcTemplate.queryForList("SELECT user_id FROM user_ids ORDER BY user_id", Integer.class))
+                .containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Test partitioning an existing database keeps change notifications functionality")
+    public void givenPartitioningAppliedAfterNotifications_whenListTriggers_thenNotifyTriggersAreOnPartitionedTable() {
+        //given
+        String partitioned = "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = 'users'::regclass";
+        //when
+        List<String> triggers = jdbcTemplate.queryForList(
+                "SELECT tgname FROM pg_trigger WHERE tgrelid = 'users'::regclass AND NOT tgisinternal", String.class);
+        //then
+        assertThat(jdbcTemplate.queryForObject(partitioned, Integer.class)).isEqualTo(1);
+        assertThat(triggers).contains("users_notify_update", "users_notify_delete");
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.testassignment.repository;
 
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserField;
 import com.example.testassignment.entity.UserEntity;
 import com.example.testassignment.util.DataUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,11 +10,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.util.CollectionUtils;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -131,6 +136,47 @@ public class UserRepositoryTests {
         assertThat(users.stream().count()).isEqualTo(2);
     }
 
+    @Test
+    @DisplayName("Test find selected fields of users from first date to second date")
+    public void givenThreeUsers_whenFindFieldsByBirthDateBetween_thenOnlySelectedFieldsAreReturned() {
+        //given
+        UserEntity user1 = DataUtils.getJohnDoeTransient();//1990-5-15
+        UserEntity user2 = DataUtils.getMikeSmithTransient();//1985-8-20
+        UserEntity user3 = DataUtils.getFrankJonesTransient();//1978-3-10
+
+        userRepository.saveAll(List.of(user1, user2, user3));
+        LocalDate from = LocalDate.of(1985, 3, 10);
+        LocalDate to = LocalDate.of(1991, 5, 15);
+        //when
+        List<UserDto> users = userRepository.findFieldsByBirthDateBetween(from, to, UserField.parse("firstName,lastName"),
+                PageRequest.of(0, 10, Sort.by("birthDate")));
+        //then
+        assertThat(users).extracting(UserDto::getLastName).containsExactly("Smith", "Doe");
+        assertThat(users).extracting(UserDto::getId).containsExactly(user2.getId(), user1.getId());
+        assertThat(users).extracting(UserDto::getEmail).containsOnlyNulls();
+        assertThat(users).extracting(UserDto::getAddress).containsOnlyNulls();
+    }
+
+    @Test
+    @DisplayName("Test find users after keyset cursor functionality")
+    public void givenThreeUsers_whenFindByBirthDateRangeAfter_thenNextPageIsReturned() {
+        //given
+        UserEntity user1 = DataUtils.getJohnDoeTransient();//1990-5-15
+        UserEntity user2 = DataUtils.getMikeSmithTransient();//1985-8-20
+        UserEntity user3 = DataUtils.getFrankJonesTransient();//1978-3-10
+
+        userRepository.saveAll(List.of(user1, user2, user3));
+        LocalDate from = LocalDate.of(1970, 1, 1);
+        LocalDate to = LocalDate.of(1995, 1, 1);
+        //when
+        List<UserEntity> firstPage = userRepository.findByBirthDateRangeAfter(to, from, Integer.MIN_VALUE, PageRequest.ofSize(2));
+        UserEntity last = firstPage.get(firstPage.size() - 1);
+        List<UserEntity> secondPage = userRepository.findByBirthDateRangeAfter(to, last.getBirthDate(), last.getId(), PageRequest.ofSize(2));
+        //then
+        assertThat(firstPage).extracting(UserEntity::getLastName).containsExactly("Jones", "Smith");
+        assertThat(secondPage).extracting(UserEntity::getLastName).containsExactly("Doe");
+    }
+
     @Test
     @DisplayName("Test delete by id functionality")
     public void givenUserIsSaved_whenDeleteById_thenUserIsRemovedFromDB() {
@@ -144,4 +190,71 @@ public class UserRepositoryTests {
                 .orElse(null);
         assertThat(obtainedUser).isNull();
     }
+
+    @Test
+    @DisplayName("Test patch user functionality")
+    public void givenUserIsSaved_whenPatchById_thenOnlySuppliedFieldsAreChanged() {
+        //given
+        UserEntity user = userRepository.save(DataUtils.getJohnDoeTransient());
+        UserEntity patch = UserEntity.builder()
+                .email("updated@email.com")
+                .build();
+        //when
+        int updated = userRepository.patchById(user.getId(), patch);
+        //then
+        UserEntity obtainedUser = userRepository.findById(user.getId()).orElse(null);
+        assertThat(updated).isEqualTo(1);
+        assertThat(obtainedUser).isNotNull();
+        assertThat(obtainedUser.getEmail()).isEqualTo("updated@email.com");
+        assertThat(obtainedUser.getFirstName()).isEqualTo("John");
+        assertThat(obtainedUser.getAddress()).isEqualTo("123 Main St");
+    }
+
+    @Test
+    @DisplayName("Test update user returning previous birth date functionality")
+    public void givenUserIsSaved_whenUpdateReturningPreviousBirthDate_thenOldBirthDateIsReturned() {
+        //given
+        UserEntity user = userRepository.save(DataUtils.getJohnDoeTransient());
+        UserEntity userToUpdate = DataUtils.getFrankJonesTransient();
+        userToUpdate.setId(user.getId());
+        UserEntity missingUser = DataUtils.getMikeSmithPersisted();
+        missingUser.setId(Integer.MAX_VALUE);
+        //when
+        Optional<LocalDate> previousBirthDate = userRepository.updateReturningPreviousBirthDate(userToUpdate);
+        Optional<LocalDate> missing = userRepository.updateReturningPreviousBirthDate(missingUser);
+        //then
+        assertThat(previousBirthDate).contains(LocalDate.of(1990, 5, 15));
+        assertThat(missing).isEmpty();
+        assertThat(userRepository.findById(user.getId())).hasValueSatisfying(obtainedUser -> {
+            assertThat(obtainedUser.getLastName()).isEqualTo("Jones");
+            assertThat(obtainedUser.getBirthDate()).isEqualTo(LocalDate.of(1978, 3, 10));
+        });
+    }
+
+    @Test
+    @DisplayName("Test delete user returning birth date functionality")
+    public void givenUserIsSaved_whenDeleteReturningBirthDate_thenBirthDateIsReturnedOnce() {
+        //given
+        UserEntity user = userRepository.save(DataUtils.getJohnDoeTransient());
+        //when
+        Optional<LocalDate> birthDate = userRepository.deleteReturningBirthDate(user.getId());
+        Optional<LocalDate> deletedAgain = userRepository.deleteReturningBirthDate(user.getId());
+        //then
+        assertThat(birthDate).contains(LocalDate.of(1990, 5, 15));
+        assertThat(deletedAgain).isEmpty();
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test exists by email ignoring case functionality")
+    public void givenUserIsSaved_whenExistsByEmailIgnoreCase_thenEmailIsFoundInAnyCase() {
+        //given
+        userRepository.save(DataUtils.getJohnDoeTransient());
+        //when
+        boolean exists = userRepository.existsByEmailIgnoreCase("John.Doe@MAIL.com");
+        boolean otherExists = userRepository.existsByEmailIgnoreCase("jane.doe@mail.com");
+        //then
+        assertThat(exists).isTrue();
+        assertThat(otherExists).isFalse();
+    }
 }
@@ -0,0 +1,144 @@
+package com.example.testassignment.repository;
+
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UsersBulkLoadedEvent;
+import com.example.testassignment.service.UserSecondLevelCacheInvalidator;
+import com.example.testassignment.util.DataUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "users.l2-cache.enabled=true")
+@Import(UserSecondLevelCacheInvalidator.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserSecondLevelCacheTests {
+
+    private static final LocalDate FROM = LocalDate.of(1980, 1, 1);
+
+    private static final LocalDate TO = LocalDate.of(1995, 12, 31);
+
+    private static final Pageable PAGE = PageRequest.of(0, 10, Sort.by("birthDate", "id"));
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        userRepository.deleteAllInBatch();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Test find by id is served from second-level cache functionality")
+    public void givenLoadedUser_whenFindByIdAgain_thenSecondLevelCacheIsHit() {
+        //given
+        UserEntity user = userRepository.save(DataUtils.getJohnDoeTransient());
+        userRepository.findById(user.getId());
+        long hitsBefore = statistics.getSecondLevelCacheHitCount();
+        //when
+        UserEntity found = userRepository.findById(user.getId()).orElse(null);
+        //then
+        assertThat(found).isNotNull();
+        assertThat(found.getEmail()).isEqualTo(user.getEmail());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    @DisplayName("Test no stale read after update functionality")
+    public void givenCachedUser_whenUpdateReturningPreviousBirthDate_thenFindByIdReturnsUpdatedUser() {
+        //given
+        UserEntity user = userRepository.save(DataUtils.getJohnDoeTransient());
+        userRepository.findById(user.getId());
+        user.setEmail("updated@mail.com");
+        //when
+        transactionTemplate.executeWithoutResult(status -> userRepository.updateReturningPreviousBirthDate(user));
+        //then
+        assertThat(userRepository.findById(user.getId())).hasValueSatisfying(found ->
+                assertThat(found.getEmail()).isEqualTo("updated@mail.com"));
+    }
+
+    @Test
+    @DisplayName("Test no stale read after delete functionality")
+    public void givenCachedUser_whenDeleteReturningBirthDate_thenFindByIdIsEmpty() {
+        //given
+        UserEntity user = userRepository.save(DataUtils.getJohnDoeTransient());
+        userRepository.findById(user.getId());
+        //when
+        transactionTemplate.executeWithoutResult(status -> userRepository.deleteReturningBirthDate(user.getId()));
+        //then
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(userRepository.existsById(user.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test range query cache is invalidated by update functionality")
+    public void givenCachedRangeQuery_whenBirthDateMovedOutOfRange_thenRangeQueryExcludesUser() {
+        //given
+        UserEntity john = userRepository.save(DataUtils.getJohnDoeTransient());
+        userRepository.save(DataUtils.getMikeSmithTransient());
+        userRepository.findByBirthDateBetween(FROM, TO, PAGE);
+        userRepository.findByBirthDateBetween(FROM, TO, PAGE);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        john.setBirthDate(LocalDate.of(1970, 1, 1));
+        //when
+        transactionTemplate.executeWithoutResult(status -> userRepository.updateReturningPreviousBirthDate(john));
+        List<UserEntity> users = userRepository.findByBirthDateBetween(FROM, TO, PAGE);
+        //then
+        assertThat(users).extracting(UserEntity::getLastName).containsExactly("Smith");
+    }
+
+    @Test
+    @DisplayName("Test range query cache is invalidated by JDBC bulk load functionality")
+    public void givenCachedRangeQuery_whenUsersBulkLoadedWithJdbc_thenRangeQueryIncludesThem() {
+        //given
+        userRepository.save(DataUtils.getJohnDoeTransient());
+        userRepository.findByBirthDateBetween(FROM, TO, PAGE);
+        jdbcTemplate.update("INSERT INTO users (id, email, first_name, last_name, birth_date) VALUES (?, ?, ?, ?, ?)",
+                1_000_000, "mike.smith@mail.com", "Mike", "Smith", LocalDate.of(1985, 8, 20));
+        //when
+        eventPublisher.publishEvent(new UsersBulkLoadedEvent(1));
+        List<UserEntity> users = userRepository.findByBirthDateBetween(FROM, TO, PAGE);
+        //then
+        assertThat(users).extracting(UserEntity::getLastName).containsExactly("Smith", "Doe");
+    }
+}
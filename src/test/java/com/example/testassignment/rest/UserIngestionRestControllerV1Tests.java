@@ -0,0 +1,82 @@
+package com.example.testassignment.rest;
+
+import com.example.testassignment.dto.UserIngestionResultDto;
+import com.example.testassignment.service.UserIngestionService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@WebMvcTest(UserIngestionRestControllerV1.class)
+public class UserIngestionRestControllerV1Tests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserIngestionService userIngestionService;
+
+    @Test
+    @DisplayName("Test ingest users from CSV functionality")
+    public void givenCsvBody_whenIngest_thenCountersAreReturned() throws Exception {
+        //given
+        String body = """
+                email,firstName,lastName,birthDate,address,phoneNumber
+                john.doe@mail.com,John,Doe,1990-05-15,123 Main St,123-456-7890
+                """;
+        BDDMockito.given(userIngestionService.ingest(any(InputStream.class), eq(UserIngestionService.Format.CSV)))
+                .willReturn(UserIngestionResultDto.builder()
+                        .received(1L)
+                        .accepted(1L)
+                        .rejected(0L)
+                        .rejectionReasons(Map.of())
+                        .duplicates(0L)
+                        .merged(1L)
+                        .durationMillis(5L)
+                        .rowsPerSecond(200L)
+                        .build());
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/users/ingest")
+                .contentType(UserIngestionRestControllerV1.TEXT_CSV_VALUE)
+                .content(body));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.received", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.merged", CoreMatchers.is(1)));
+    }
+
+    @Test
+    @DisplayName("Test ingest users from NDJSON functionality")
+    public void givenNdjsonBody_whenIngest_thenNdjsonFormatIsUsed() throws Exception {
+        //given
+        BDDMockito.given(userIngestionService.ingest(any(InputStream.class), eq(UserIngestionService.Format.NDJSON)))
+                .willReturn(UserIngestionResultDto.builder().received(0L).build());
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/users/ingest")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(""));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.received", CoreMatchers.is(0)));
+    }
+}
@@ -1,13 +1,28 @@
 package com.example.testassignment.rest;
 
+import com.example.testassignment.config.ClockConfig;
+import com.example.testassignment.config.HttpEncodingConfig;
+import com.example.testassignment.config.UserMetrics;
+import com.example.testassignment.dto.UserCursor;
 import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserField;
+import com.example.testassignment.dto.UserImportErrorDto;
+import com.example.testassignment.dto.UserImportResultDto;
+import com.example.testassignment.dto.UserPatchDto;
+import com.example.testassignment.dto.UserWriteStatusDto;
 import com.example.testassignment.entity.UserEntity;
 import com.example.testassignment.exception.BirthDateRangeException;
 import com.example.testassignment.exception.UserNotAdultException;
 import com.example.testassignment.exception.UserNotFoundException;
+import com.example.testassignment.exception.UserQueueFullException;
+import com.example.testassignment.service.UserRangePage;
+import com.example.testassignment.service.UserRules;
 import com.example.testassignment.service.UserService;
+import com.example.testassignment.service.UserWriteBehindService;
 import com.example.testassignment.util.DataUtils;
+import com.example.testassignment.util.UserDtoValidator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +30,7 @@ import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,17 +39,27 @@ import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
-@WebMvcTest
+@WebMvcTest(UserRestControllerV1.class)
+@Import({UserDtoValidator.class, UserRules.class, ClockConfig.class, HttpEncodingConfig.class})
 public class UserRestControllerV1Tests {
 
     @Autowired
@@ -45,6 +71,12 @@ public class UserRestControllerV1Tests {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserMetrics userMetrics;
+
+    @MockBean
+    private UserWriteBehindService userWriteBehindService;
+
     @Test
     @DisplayName("Test create user functionality")
     public void givenUserDto_whenCreateUser_thenSuccessResponse() throws Exception {
@@ -67,6 +99,69 @@ public class UserRestControllerV1Tests {
                 .andExpect(jsonPath("$.email", CoreMatchers.is(entity.getEmail())));
     }
 
+    @Test
+    @DisplayName("Test create user in write-behind mode functionality")
+    public void givenWriteBehindEnabled_whenCreateUser_thenAcceptedResponse() throws Exception {
+        //given
+        UserDto userDto = DataUtils.getJohnDoeDtoTransient();
+        UserEntity entity = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userWriteBehindService.isEnabled())
+                .willReturn(true);
+        BDDMockito.given(userWriteBehindService.enqueue(any(UserEntity.class)))
+                .willReturn(entity);
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDto)));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string("Location",
+                        CoreMatchers.endsWith("/api/v1/users/" + entity.getId() + "/status")))
+                .andExpect(jsonPath("$.id", CoreMatchers.is(entity.getId())));
+        verify(userService, never()).saveUser(any(UserEntity.class));
+    }
+
+    @Test
+    @DisplayName("Test create user with full write-behind queue functionality")
+    public void givenFullQueue_whenCreateUser_thenTooManyRequestsResponse() throws Exception {
+        //given
+        UserDto userDto = DataUtils.getJohnDoeDtoTransient();
+        BDDMockito.given(userWriteBehindService.isEnabled())
+                .willReturn(true);
+        BDDMockito.given(userWriteBehindService.enqueue(any(UserEntity.class)))
+                .willThrow(new UserQueueFullException("Too many pending users, please retry later."));
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDto)));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status", CoreMatchers.is(429)));
+    }
+
+    @Test
+    @DisplayName("Test get user write status functionality")
+    public void givenPendingUser_whenGetUserWriteStatus_thenStatusIsReturned() throws Exception {
+        //given
+        BDDMockito.given(userWriteBehindService.getStatus(1))
+                .willReturn(UserWriteStatusDto.builder()
+                        .id(1)
+                        .status(UserWriteStatusDto.Status.PENDING)
+                        .build());
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users/1/status"));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.status", CoreMatchers.is("PENDING")));
+    }
+
     @Test
     @DisplayName("Test create not adult user functionality")
     public void givenUserDtoNotAdult_whenCreateUser_thenErrorResponse() throws Exception {
@@ -86,6 +181,95 @@ public class UserRestControllerV1Tests {
                 .andExpect(jsonPath("$.message", CoreMatchers.is("User must be at least 18 years old.")));
     }
 
+    @Test
+    @DisplayName("Test import users from JSON array functionality")
+    public void givenUserDtoArray_whenImportUsers_thenImportResultIsReturned() throws Exception {
+        //given
+        List<UserDto> dtos = List.of(DataUtils.getJohnDoeDtoTransient(), DataUtils.getMikeSmithDtoTransient());
+        BDDMockito.given(userService.importUsers(any()))
+                .willReturn(UserImportResultDto.builder()
+                        .received(2)
+                        .imported(1)
+                        .errors(List.of(new UserImportErrorDto(1, "User must be at least 18 years old.")))
+                        .build());
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dtos)));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.received", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$.imported", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.errors[0].row", CoreMatchers.is(1)));
+    }
+
+    @Test
+    @DisplayName("Test import users from NDJSON functionality")
+    public void givenNdjsonBody_whenImportUsers_thenEveryLineIsPassedToService() throws Exception {
+        //given
+        String body = objectMapper.writeValueAsString(DataUtils.getJohnDoeDtoTransient()) + "\n"
+                + objectMapper.writeValueAsString(DataUtils.getMikeSmithDtoTransient()) + "\n";
+        BDDMockito.given(userService.importUsers(any()))
+                .willAnswer(invocation -> {
+                    Iterator<UserEntity> users = invocation.getArgument(0);
+                    int received = 0;
+                    while (users.hasNext()) {
+                        users.next();
+                        received++;
+                    }
+                    return UserImportResultDto.builder().received(received).imported(received).errors(List.of()).build();
+                });
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/users/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.received", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$.imported", CoreMatchers.is(2)));
+    }
+
+    @Test
+    @DisplayName("Test import users from NDJSON with malformed line functionality")
+    public void givenNdjsonBodyWithMalformedLine_whenImportUsers_thenLineIsReportedAndOthersArePassedToService() throws Exception {
+        //given
+        String body = objectMapper.writeValueAsString(DataUtils.getJohnDoeDtoTransient()) + "\n"
+                + "{\"firstName\": \"Broken\",\n"
+                + objectMapper.writeValueAsString(DataUtils.getMikeSmithDtoTransient()) + "\n";
+        BDDMockito.given(userService.importUsers(any()))
+                .willAnswer(invocation -> {
+                    Iterator<UserEntity> users = invocation.getArgument(0);
+                    int received = 0;
+                    while (users.hasNext()) {
+                        users.next();
+                        received++;
+                    }
+                    return UserImportResultDto.builder()
+                            .received(received)
+                            .imported(received - 1)
+                            .errors(List.of(new UserImportErrorDto(1, "User with this email already exists.")))
+                            .build();
+                });
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/users/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.received", CoreMatchers.is(3)))
+                .andExpect(jsonPath("$.imported", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.errors[0].row", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.errors[0].message", CoreMatchers.startsWith("Malformed JSON")))
+                .andExpect(jsonPath("$.errors[1].row", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$.errors[1].message", CoreMatchers.is("User with this email already exists.")));
+    }
+
     @Test
     @DisplayName("Test update user functionality")
     public void givenUserDto_whenUpdateUser_thenSuccessResponse() throws Exception {
@@ -126,6 +310,73 @@ public class UserRestControllerV1Tests {
                 .andExpect(jsonPath("$.message", CoreMatchers.is("User not found.")));
     }
 
+    @Test
+    @DisplayName("Test patch user functionality")
+    public void givenUserPatchDto_whenPatchUser_thenSuccessResponse() throws Exception {
+        //given
+        UserPatchDto patchDto = UserPatchDto.builder().email("updated@email.com").build();
+        BDDMockito.doNothing().when(userService).patchUser(anyInt(), any(UserEntity.class));
+        //when
+        ResultActions result = mockMvc.perform(patch("/api/v1/users/{id}", 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patchDto)));
+        //then
+        verify(userService, times(1)).patchUser(anyInt(), any(UserEntity.class));
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    @DisplayName("Test patch user with invalid email functionality")
+    public void givenInvalidEmail_whenPatchUser_thenValidationErrorResponse() throws Exception {
+        //given
+        UserPatchDto patchDto = UserPatchDto.builder().email("not-an-email").build();
+        //when
+        ResultActions result = mockMvc.perform(patch("/api/v1/users/{id}", 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patchDto)));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(jsonPath("$.email", CoreMatchers.is("Invalid email address")));
+    }
+
+    @Test
+    @DisplayName("Test get user by id functionality")
+    public void givenId_whenGetUserById_thenSuccessResponse() throws Exception {
+        //given
+        UserEntity entity = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userService.getUserById(entity.getId()))
+                .willReturn(entity);
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users/{id}", entity.getId())
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.id", CoreMatchers.is(entity.getId())))
+                .andExpect(jsonPath("$.email", CoreMatchers.is(entity.getEmail())));
+    }
+
+    @Test
+    @DisplayName("Test get user by incorrect id functionality")
+    public void givenIncorrectId_whenGetUserById_thenErrorResponse() throws Exception {
+        //given
+        BDDMockito.given(userService.getUserById(anyInt()))
+                .willThrow(new UserNotFoundException("User not found."));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users/{id}", 1)
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(jsonPath("$.message", CoreMatchers.is("User not found.")));
+    }
+
     @Test
     @DisplayName("Test delete functionality")
     public void givenId_whenDelete_thenSuccessResponse() throws Exception {
@@ -168,7 +419,7 @@ public class UserRestControllerV1Tests {
 
         List<UserEntity> users = List.of(user1, user2);
         BDDMockito.given(userService.getAllUsersByBirthDateRange(from, to, Pageable.unpaged()))
-                .willReturn(users);
+                .willReturn(UserRangePage.of(users));
         //when
         ResultActions result = mockMvc.perform(get("/api/v1/users?from=1984-01-01&to=1992-12-31")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -180,6 +431,111 @@ public class UserRestControllerV1Tests {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    @DisplayName("Test get users by birth date range as CBOR functionality")
+    public void givenAcceptCbor_whenGetUsersByBirthDateRange_thenCborResponse() throws Exception {
+        //given
+        List<UserEntity> users = List.of(DataUtils.getJohnDoePersisted(), DataUtils.getMikeSmithPersisted());
+        BDDMockito.given(userService.getAllUsersByBirthDateRange(any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .willReturn(UserRangePage.of(users));
+        //when
+        byte[] body = mockMvc.perform(get("/api/v1/users")
+                        .param("from", "1984-01-01")
+                        .param("to", "1992-12-31")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        //then
+        UserDto[] obtainedUsers = new ObjectMapper(new CBORFactory()).findAndRegisterModules().readValue(body, UserDto[].class);
+        assertThat(obtainedUsers).containsExactly(UserDto.fromEntity(users.get(0)), UserDto.fromEntity(users.get(1)));
+    }
+
+    @Test
+    @DisplayName("Test get unchanged users page by birth date range functionality")
+    public void givenMatchingETag_whenGetUsersByBirthDateRange_thenNotModifiedResponse() throws Exception {
+        //given
+        List<UserEntity> users = List.of(DataUtils.getJohnDoePersisted(), DataUtils.getMikeSmithPersisted());
+        BDDMockito.given(userService.getAllUsersByBirthDateRange(any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .willReturn(UserRangePage.of(users));
+        String eTag = mockMvc.perform(get("/api/v1/users")
+                        .param("from", "1984-01-01")
+                        .param("to", "1992-12-31"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users")
+                .param("from", "1984-01-01")
+                .param("to", "1992-12-31")
+                .header("If-None-Match", eTag));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Test changed users page by birth date range gets new ETag functionality")
+    public void givenChangedPage_whenGetUsersByBirthDateRange_thenETagDiffers() throws Exception {
+        //given
+        UserEntity changedUser = DataUtils.getMikeSmithPersisted();
+        changedUser.setAddress("Changed address");
+        BDDMockito.given(userService.getAllUsersByBirthDateRange(any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .willReturn(UserRangePage.of(List.of(DataUtils.getJohnDoePersisted(), DataUtils.getMikeSmithPersisted())))
+                .willReturn(UserRangePage.of(List.of(DataUtils.getJohnDoePersisted(), changedUser)));
+        String eTag = mockMvc.perform(get("/api/v1/users")
+                        .param("from", "1984-01-01")
+                        .param("to", "1992-12-31"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users")
+                .param("from", "1984-01-01")
+                .param("to", "1992-12-31")
+                .header("If-None-Match", eTag));
+        //then
+        assertThat(eTag).matches("W/\"[0-9a-f]{32}-json\"");
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", CoreMatchers.not(eTag)))
+                .andExpect(jsonPath("$[1].address", CoreMatchers.is("Changed address")));
+    }
+
+    @Test
+    @DisplayName("Test users page in another encoding gets its own ETag functionality")
+    public void givenJsonETag_whenGetUsersByBirthDateRangeAsCbor_thenETagDiffers() throws Exception {
+        //given
+        List<UserEntity> users = List.of(DataUtils.getJohnDoePersisted(), DataUtils.getMikeSmithPersisted());
+        BDDMockito.given(userService.getAllUsersByBirthDateRange(any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .willReturn(UserRangePage.of(users));
+        String eTag = mockMvc.perform(get("/api/v1/users")
+                        .param("from", "1984-01-01")
+                        .param("to", "1992-12-31")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users")
+                .param("from", "1984-01-01")
+                .param("to", "1992-12-31")
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", eTag));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", eTag.replace("-json", "-cbor")))
+                .andExpect(MockMvcResultMatchers.header().string("Vary", CoreMatchers.containsString("Accept")));
+    }
+
     @Test
     @DisplayName("Test get users by birth date range with incorrect date from functionality")
     public void givenUsers_whenGetUsersByBirthDateRange_thenErrorResponse() throws Exception {
@@ -199,4 +555,119 @@ public class UserRestControllerV1Tests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is(400)))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message", CoreMatchers.is("'From' date must be less than 'To' date.")));
     }
+
+    @Test
+    @DisplayName("Test get first keyset page of users by birth date range functionality")
+    public void givenEmptyCursor_whenGetUsersByBirthDateRange_thenPageWithNextCursorIsReturned() throws Exception {
+        //given
+        UserEntity user1 = DataUtils.getMikeSmithPersisted();
+        UserEntity user2 = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userService.getUsersByBirthDateRangeAfter(any(LocalDate.class), any(LocalDate.class), isNull(), anyInt()))
+                .willReturn(List.of(user1, user2));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users")
+                .param("from", "1984-01-01")
+                .param("to", "1992-12-31")
+                .param("cursor", "")
+                .param("size", "2")
+                .contentType(MediaType.APPLICATION_JSON)
+        );
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.users.length()", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$.nextCursor", CoreMatchers.is(UserCursor.of(user2).encode())));
+    }
+
+    @Test
+    @DisplayName("Test get users by birth date range with malformed cursor functionality")
+    public void givenMalformedCursor_whenGetUsersByBirthDateRange_thenErrorResponse() throws Exception {
+        //given
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users")
+                .param("from", "1984-01-01")
+                .param("to", "1992-12-31")
+                .param("cursor", "@@@")
+                .contentType(MediaType.APPLICATION_JSON)
+        );
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(jsonPath("$.status", CoreMatchers.is(400)))
+                .andExpect(jsonPath("$.message", CoreMatchers.is("Invalid cursor.")));
+    }
+
+    @Test
+    @DisplayName("Test get selected fields of users by birth date range functionality")
+    public void givenFields_whenGetUsersByBirthDateRange_thenOnlySelectedFieldsAreReturned() throws Exception {
+        //given
+        UserDto user = UserDto.builder()
+                .id(1)
+                .firstName("John")
+                .lastName("Doe")
+                .build();
+        BDDMockito.given(userService.getUsersByBirthDateRange(any(LocalDate.class), any(LocalDate.class),
+                        eq(Set.of(UserField.ID, UserField.FIRST_NAME, UserField.LAST_NAME)), any(Pageable.class)))
+                .willReturn(List.of(user));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users")
+                .param("from", "1984-01-01")
+                .param("to", "1992-12-31")
+                .param("fields", "firstName,lastName")
+        );
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$[0].firstName", CoreMatchers.is("John")))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[0].address").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Test get users by birth date range with unknown field functionality")
+    public void givenUnknownField_whenGetUsersByBirthDateRange_thenErrorResponse() throws Exception {
+        //given
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users")
+                .param("from", "1984-01-01")
+                .param("to", "1992-12-31")
+                .param("fields", "firstName,password")
+        );
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(jsonPath("$.status", CoreMatchers.is(400)))
+                .andExpect(jsonPath("$.message", CoreMatchers.is("Unknown field 'password'.")));
+    }
+
+    @Test
+    @DisplayName("Test export users by birth date range as NDJSON functionality")
+    public void givenUsers_whenExportUsersByBirthDateRange_thenOneJsonLinePerUserIsStreamed() throws Exception {
+        //given
+        UserEntity user1 = DataUtils.getMikeSmithPersisted();
+        UserEntity user2 = DataUtils.getJohnDoePersisted();
+        willAnswer(invocation -> {
+            Consumer<UserEntity> action = invocation.getArgument(2);
+            action.accept(user1);
+            action.accept(user2);
+            return null;
+        }).given(userService).exportUsersByBirthDateRange(any(LocalDate.class), any(LocalDate.class), any());
+        String expected = objectMapper.writeValueAsString(UserDto.fromEntity(user1)) + "\n"
+                + objectMapper.writeValueAsString(UserDto.fromEntity(user2)) + "\n";
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/users/export")
+                .param("from", "1984-01-01")
+                .param("to", "1992-12-31")
+        );
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expected));
+    }
 }
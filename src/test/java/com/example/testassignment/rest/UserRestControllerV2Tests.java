@@ -0,0 +1,169 @@
+package com.example.testassignment.rest;
+
+import com.example.testassignment.config.ClockConfig;
+import com.example.testassignment.config.UserMetrics;
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.exception.UserNotAdultException;
+import com.example.testassignment.exception.UserNotFoundException;
+import com.example.testassignment.service.ReactiveUserService;
+import com.example.testassignment.service.UserRules;
+import com.example.testassignment.util.DataUtils;
+import com.example.testassignment.util.UserDtoValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@WebFluxTest(UserRestControllerV2.class)
+@Import({UserDtoValidator.class, UserRules.class, ClockConfig.class})
+@ActiveProfiles("reactive")
+public class UserRestControllerV2Tests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveUserService userService;
+
+    @MockBean
+    private UserMetrics userMetrics;
+
+    @Test
+    @DisplayName("Test create user functionality")
+    public void givenUserDto_whenCreateUser_thenSuccessResponse() {
+        //given
+        UserDto userDto = DataUtils.getJohnDoeDtoTransient();
+        UserEntity entity = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userService.saveUser(any(UserEntity.class)))
+                .willReturn(Mono.just(entity));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post()
+                .uri("/api/v2/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDto)
+                .exchange();
+        //then
+        result
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(entity.getId())
+                .jsonPath("$.firstName").isEqualTo(entity.getFirstName())
+                .jsonPath("$.email").isEqualTo(entity.getEmail());
+    }
+
+    @Test
+    @DisplayName("Test create not adult user functionality")
+    public void givenUserDtoNotAdult_whenCreateUser_thenErrorResponse() {
+        //given
+        UserDto userDto = DataUtils.getJohnDoeDtoTransient();
+        BDDMockito.given(userService.saveUser(any(UserEntity.class)))
+                .willReturn(Mono.error(new UserNotAdultException("User must be at least 18 years old.")));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post()
+                .uri("/api/v2/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDto)
+                .exchange();
+        //then
+        result
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("User must be at least 18 years old.");
+    }
+
+    @Test
+    @DisplayName("Test create invalid user functionality")
+    public void givenUserDtoWithInvalidEmail_whenCreateUser_thenValidationErrorResponse() {
+        //given
+        UserDto userDto = DataUtils.getJohnDoeDtoTransient();
+        userDto.setEmail("not-an-email");
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post()
+                .uri("/api/v2/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDto)
+                .exchange();
+        //then
+        result
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("Invalid email address");
+        verify(userService, never()).saveUser(any(UserEntity.class));
+    }
+
+    @Test
+    @DisplayName("Test delete not existing user functionality")
+    public void givenNotExistingId_whenDeleteUser_thenErrorResponse() {
+        //given
+        BDDMockito.given(userService.deleteById(42))
+                .willReturn(Mono.error(new UserNotFoundException("User not found.")));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.delete()
+                .uri("/api/v2/users/42")
+                .exchange();
+        //then
+        result
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("User not found.");
+    }
+
+    @Test
+    @DisplayName("Test stream users by birth date range functionality")
+    public void givenRange_whenGetUsersAsNdjson_thenUsersAreStreamed() {
+        //given
+        LocalDate from = LocalDate.of(1980, 1, 1);
+        LocalDate to = LocalDate.of(2000, 1, 1);
+        BDDMockito.given(userService.getUsersByBirthDateRange(from, to))
+                .willReturn(Flux.just(DataUtils.getMikeSmithPersisted(), DataUtils.getJohnDoePersisted()));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get()
+                .uri("/api/v2/users?from={from}&to={to}", from, to)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+        //then
+        result.expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+        assertThat(result.returnResult(UserDto.class).getResponseBody().collectList().block())
+                .extracting(UserDto::getEmail)
+                .containsExactly(DataUtils.getMikeSmithPersisted().getEmail(), DataUtils.getJohnDoePersisted().getEmail());
+    }
+
+    @Test
+    @DisplayName("Test get users by incorrect birth date range functionality")
+    public void givenIncorrectRange_whenGetUsers_thenErrorResponse() {
+        //given
+        LocalDate from = LocalDate.of(2000, 1, 1);
+        LocalDate to = LocalDate.of(1980, 1, 1);
+        BDDMockito.given(userService.getUsersByBirthDateRange(from, to))
+                .willReturn(Flux.error(new BirthDateRangeException("'From' date must be less than 'To' date.")));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get()
+                .uri("/api/v2/users?from={from}&to={to}", from, to)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+        //then
+        result
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("'From' date must be less than 'To' date.");
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.exception.EmailAlreadyExistsException;
+import com.example.testassignment.exception.UserNotAdultException;
+import com.example.testassignment.exception.UserNotFoundException;
+import com.example.testassignment.repository.ReactiveUserRepository;
+import com.example.testassignment.util.DataUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveUserServiceImplTests {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private UserRules userRules = new UserRules(18);
+
+    @InjectMocks
+    private ReactiveUserServiceImpl serviceUnderTest;
+
+    @Test
+    @DisplayName("Test save user functionality")
+    public void givenUserToSave_whenSaveUser_thenUserIsInserted() {
+        //given
+        UserEntity persisted = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userRepository.insert(any(UserEntity.class)))
+                .willReturn(Mono.just(persisted));
+        //when
+        StepVerifier.create(serviceUnderTest.saveUser(DataUtils.getJohnDoeTransient()))
+        //then
+                .expectNext(persisted)
+                .verifyComplete();
+        verify(eventPublisher, times(1)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Test save not adult user functionality")
+    public void givenUserToSaveWithBirthDateUnder18_whenSaveUser_thenErrorIsSignalled() {
+        //given
+        UserEntity userToSave = DataUtils.getJohnDoeTransientNotAdult();
+        //when
+        StepVerifier.create(serviceUnderTest.saveUser(userToSave))
+        //then
+                .expectError(UserNotAdultException.class)
+                .verify();
+        verify(userRepository, never()).insert(any(UserEntity.class));
+    }
+
+    @Test
+    @DisplayName("Test save user with taken email functionality")
+    public void givenTakenEmail_whenSaveUser_thenEmailAlreadyExistsIsSignalled() {
+        //given
+        BDDMockito.given(userRepository.insert(any(UserEntity.class)))
+                .willReturn(Mono.error(new DuplicateKeyException(
+                        "duplicate key value violates unique constraint \"uk_users_email_lower\"")));
+        //when
+        StepVerifier.create(serviceUnderTest.saveUser(DataUtils.getJohnDoeTransient()))
+        //then
+                .expectError(EmailAlreadyExistsException.class)
+                .verify();
+        verify(eventPublisher, never()).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Test update user to taken email functionality")
+    public void givenTakenEmail_whenUpdateUser_thenEmailAlreadyExistsIsSignalled() {
+        //given
+        UserEntity user = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userRepository.update(user))
+                .willReturn(Mono.error(new DuplicateKeyException(
+                        "duplicate key value violates unique constraint \"uk_user_emails_email_lower\"")));
+        //when
+        StepVerifier.create(serviceUnderTest.updateUser(user))
+        //then
+                .expectError(EmailAlreadyExistsException.class)
+                .verify();
+        verify(eventPublisher, never()).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Test update not existing user functionality")
+    public void givenNotExistingUser_whenUpdateUser_thenErrorIsSignalled() {
+        //given
+        UserEntity user = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userRepository.update(user))
+                .willReturn(Mono.empty());
+        //when
+        StepVerifier.create(serviceUnderTest.updateUser(user))
+        //then
+                .expectError(UserNotFoundException.class)
+                .verify();
+        verify(eventPublisher, never()).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Test delete user functionality")
+    public void givenExistingId_whenDeleteById_thenEventIsPublished() {
+        //given
+        BDDMockito.given(userRepository.deleteById(1))
+                .willReturn(Mono.just(LocalDate.of(1990, 5, 15)));
+        //when
+        StepVerifier.create(serviceUnderTest.deleteById(1))
+        //then
+                .verifyComplete();
+        verify(eventPublisher, times(1)).publishEvent(UserChangedEvent.deleted(1, LocalDate.of(1990, 5, 15)));
+    }
+
+    @Test
+    @DisplayName("Test get users by incorrect birth date range functionality")
+    public void givenIncorrectRange_whenGetUsersByBirthDateRange_thenErrorIsSignalled() {
+        //given
+        LocalDate from = LocalDate.of(2000, 1, 1);
+        LocalDate to = LocalDate.of(1980, 1, 1);
+        //when
+        StepVerifier.create(serviceUnderTest.getUsersByBirthDateRange(from, to))
+        //then
+                .expectError(BirthDateRangeException.class)
+                .verify();
+        verifyNoInteractions(userRepository);
+    }
+}
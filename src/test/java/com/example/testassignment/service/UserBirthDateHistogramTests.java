@@ -0,0 +1,61 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.event.UserChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class UserBirthDateHistogramTests {
+
+    private final UserBirthDateHistogram histogramUnderTest = new UserBirthDateHistogram(mock(JdbcTemplate.class));
+
+    @Test
+    @DisplayName("Test count created users functionality")
+    public void givenCreatedUsers_whenCount_thenUsersInRangeAreCounted() {
+        //given
+        histogramUnderTest.onUserChanged(UserChangedEvent.created(1, LocalDate.of(1990, 5, 15)));
+        histogramUnderTest.onUserChanged(UserChangedEvent.created(2, LocalDate.of(1985, 8, 20)));
+        histogramUnderTest.onUserChanged(UserChangedEvent.created(3, LocalDate.of(1978, 3, 10)));
+        //when
+        long all = histogramUnderTest.count(LocalDate.of(1970, 1, 1), LocalDate.of(2000, 1, 1));
+        long wholeYears = histogramUnderTest.count(LocalDate.of(1985, 1, 1), LocalDate.of(1990, 12, 31));
+        long partialYears = histogramUnderTest.count(LocalDate.of(1985, 8, 21), LocalDate.of(1990, 5, 15));
+        //then
+        assertThat(all).isEqualTo(3);
+        assertThat(wholeYears).isEqualTo(2);
+        assertThat(partialYears).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test count after update and delete functionality")
+    public void givenUpdatedAndDeletedUsers_whenCount_thenCountersFollowChanges() {
+        //given
+        histogramUnderTest.onUserChanged(UserChangedEvent.created(1, LocalDate.of(1990, 5, 15)));
+        histogramUnderTest.onUserChanged(UserChangedEvent.created(2, LocalDate.of(1985, 8, 20)));
+        //when
+        histogramUnderTest.onUserChanged(UserChangedEvent.updated(1, LocalDate.of(1990, 5, 15), LocalDate.of(1978, 3, 10)));
+        histogramUnderTest.onUserChanged(UserChangedEvent.updated(2, null, null));
+        histogramUnderTest.onUserChanged(UserChangedEvent.deleted(2, LocalDate.of(1985, 8, 20)));
+        //then
+        assertThat(histogramUnderTest.count(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))).isZero();
+        assertThat(histogramUnderTest.count(LocalDate.of(1985, 1, 1), LocalDate.of(1985, 12, 31))).isZero();
+        assertThat(histogramUnderTest.count(LocalDate.of(1978, 3, 10), LocalDate.of(1978, 3, 10))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test count birth date out of supported range functionality")
+    public void givenBirthDateBeforeMinDate_whenCount_thenOnlyOutOfRangeIsCounted() {
+        //given
+        histogramUnderTest.onUserChanged(UserChangedEvent.created(1, LocalDate.of(1890, 1, 1)));
+        //when
+        long count = histogramUnderTest.count(LocalDate.of(1800, 1, 1), LocalDate.of(2000, 1, 1));
+        //then
+        assertThat(count).isZero();
+        assertThat(histogramUnderTest.outOfRange()).isEqualTo(1);
+    }
+}
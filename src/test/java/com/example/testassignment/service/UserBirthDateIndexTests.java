@@ -0,0 +1,100 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class UserBirthDateIndexTests {
+
+    private final UserBirthDateIndex indexUnderTest =
+            new UserBirthDateIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry(), true, 2, 10);
+
+    @BeforeEach
+    public void setUp() {
+        indexUnderTest.rebuild();
+    }
+
+    @Test
+    @DisplayName("Test count and find ids of created users functionality")
+    public void givenCreatedUsers_whenCountAndIds_thenUsersInRangeAreReturnedInBirthDateOrder() {
+        //given
+        indexUnderTest.onUserChanged(UserChangedEvent.created(1, LocalDate.of(1990, 5, 15)));
+        indexUnderTest.onUserChanged(UserChangedEvent.created(2, LocalDate.of(1985, 8, 20)));
+        indexUnderTest.onUserChanged(UserChangedEvent.created(3, LocalDate.of(1978, 3, 10)));
+        indexUnderTest.onUserChanged(UserChangedEvent.created(4, LocalDate.of(1965, 1, 1)));
+        LocalDate from = LocalDate.of(1970, 1, 1);
+        LocalDate to = LocalDate.of(1990, 5, 15);
+        //when
+        long count = indexUnderTest.count(from, to);
+        List<Integer> ids = indexUnderTest.ids(from, to, 0, 10);
+        List<Integer> secondPage = indexUnderTest.ids(from, to, 1, 1);
+        //then
+        assertThat(count).isEqualTo(3);
+        assertThat(ids).containsExactly(3, 2, 1);
+        assertThat(secondPage).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Test count after update and delete functionality")
+    public void givenUpdatedAndDeletedUsers_whenCount_thenIndexFollowsChanges() {
+        //given
+        indexUnderTest.onUserChanged(UserChangedEvent.created(1, LocalDate.of(1990, 5, 15)));
+        indexUnderTest.onUserChanged(UserChangedEvent.created(2, LocalDate.of(1985, 8, 20)));
+        indexUnderTest.onUserChanged(UserChangedEvent.created(3, LocalDate.of(1985, 8, 20)));
+        //when
+        indexUnderTest.onUserChanged(UserChangedEvent.updated(1, LocalDate.of(1990, 5, 15), LocalDate.of(1978, 3, 10)));
+        indexUnderTest.onUserChanged(UserChangedEvent.updated(2, null, null));
+        indexUnderTest.onUserChanged(UserChangedEvent.deleted(3, LocalDate.of(1985, 8, 20)));
+        //then
+        assertThat(indexUnderTest.count(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))).isZero();
+        assertThat(indexUnderTest.ids(LocalDate.of(1985, 1, 1), LocalDate.of(1985, 12, 31), 0, 10)).containsExactly(2);
+        assertThat(indexUnderTest.ids(LocalDate.of(1978, 3, 10), LocalDate.of(1978, 3, 10), 0, 10)).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Test find ids with unsupported page functionality")
+    public void givenUnsupportedPage_whenFindIds_thenIndexDoesNotAnswer() {
+        //given
+        LocalDate from = LocalDate.of(1970, 1, 1);
+        LocalDate to = LocalDate.of(2000, 1, 1);
+        indexUnderTest.onUserChanged(UserChangedEvent.created(1, LocalDate.of(1990, 5, 15)));
+        //when
+        Optional<List<Integer>> sortedByEmail = indexUnderTest.findIds(from, to, PageRequest.of(0, 5, Sort.by("email")));
+        Optional<List<Integer>> tooLarge = indexUnderTest.findIds(from, to, PageRequest.of(0, 50));
+        Optional<List<Integer>> unpaged = indexUnderTest.findIds(from, to, Pageable.unpaged());
+        //then
+        assertThat(sortedByEmail).isEmpty();
+        assertThat(tooLarge).isEmpty();
+        assertThat(unpaged).contains(List.of(1));
+    }
+
+    @Test
+    @DisplayName("Test disabled index does not answer functionality")
+    public void givenDisabledIndex_whenFindIds_thenIndexDoesNotAnswer() {
+        //given
+        UserBirthDateIndex disabledIndex =
+                new UserBirthDateIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry(), false, 2, 10);
+        disabledIndex.onApplicationReady();
+        disabledIndex.onUserChanged(UserChangedEvent.created(1, LocalDate.of(1990, 5, 15)));
+        //when
+        Optional<List<Integer>> ids = disabledIndex.findIds(LocalDate.of(1970, 1, 1), LocalDate.of(2000, 1, 1),
+                PageRequest.of(0, 5));
+        //then
+        assertThat(disabledIndex.isReady()).isFalse();
+        assertThat(ids).isEmpty();
+        assertThat(disabledIndex.count(LocalDate.of(1970, 1, 1), LocalDate.of(2000, 1, 1))).isZero();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.config.CacheConfig;
+import com.example.testassignment.util.DataUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class UserCacheInvalidationListenerPostgresTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16.3"));
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE);
+
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+
+    private final SessionFactory sessionFactory = mock(SessionFactory.class);
+
+    private UserCacheInvalidationListener listenerUnderTest;
+
+    @BeforeAll
+    public static void migrate() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration/postgresql")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        execute("DELETE FROM users");
+        BDDMockito.given(entityManagerFactory.unwrap(SessionFactory.class)).willReturn(sessionFactory);
+        BDDMockito.given(sessionFactory.getCache()).willReturn(mock(org.hibernate.Cache.class));
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(postgres.getJdbcUrl());
+        dataSourceProperties.setUsername(postgres.getUsername());
+        dataSourceProperties.setPassword(postgres.getPassword());
+        listenerUnderTest = new UserCacheInvalidationListener(dataSourceProperties, new UserNearCache(cacheManager),
+                entityManagerFactory, new SimpleMeterRegistry(), Duration.ofMillis(100), Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        listenerUnderTest.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test trigger announces updated and deleted users functionality")
+    public void givenListeningConnection_whenUpdateAndDeleteUsers_thenIdsAreNotified() throws Exception {
+        //given
+        insertUsers(1, 3);
+        try (Connection connection = connect()) {
+            listen(connection);
+            //when
+            execute("UPDATE users SET first_name = 'Updated' WHERE id IN (1, 2)");
+            execute("DELETE FROM users WHERE id = 3");
+            execute("INSERT INTO users (id, email, first_name, last_name, birth_date) "
+                    + "VALUES (4, 'user4@mail.com', 'User', 'Four', DATE '1990-01-01')");
+            List<String> payloads = notifications(connection, 3);
+            //then
+            assertThat(payloads).hasSize(2);
+            assertThat(payloads.get(0).split(",")).containsExactlyInAnyOrder("1", "2");
+            assertThat(payloads.get(1)).isEqualTo("3");
+        }
+    }
+
+    @Test
+    @DisplayName("Test trigger announces all users for large statements functionality")
+    public void givenListeningConnection_whenUpdateManyUsers_thenAllUsersAreNotified() throws Exception {
+        //given
+        insertUsers(1, 501);
+        try (Connection connection = connect()) {
+            listen(connection);
+            //when
+            execute("UPDATE users SET first_name = 'Updated'");
+            //then
+            assertThat(notifications(connection, 1)).containsExactly(UserCacheInvalidationListener.ALL_USERS);
+        }
+    }
+
+    @Test
+    @DisplayName("Test listener evicts users changed by another connection functionality")
+    public void givenCachedUser_whenUpdatedByAnotherConnection_thenUserIsEvicted() throws Exception {
+        //given
+        insertUsers(1, 2);
+        listenerUnderTest.onApplicationReady();
+        await(listenerUnderTest::isListening);
+        Cache users = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        users.put(1, DataUtils.getJohnDoePersisted());
+        users.put(2, DataUtils.getMikeSmithPersisted());
+        //when
+        execute("UPDATE users SET first_name = 'Updated' WHERE id = 1");
+        //then
+        await(() -> users.get(1) == null);
+        assertThat(users.get(2)).isNotNull();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void insertUsers(int fromId, int toId) throws SQLException {
+        execute("INSERT INTO users (id, email, first_name, last_name, birth_date) "
+                + "SELECT id, 'user' || id || '@mail.com', 'User', 'Number' || id, DATE '1990-01-01' "
+                + "FROM generate_series(" + fromId + ", " + toId + ") id");
+    }
+
+    private static void listen(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + UserCacheInvalidationListener.CHANNEL);
+        }
+    }
+
+    private static List<String> notifications(Connection connection, int expected) throws SQLException {
+        List<String> payloads = new ArrayList<>();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (payloads.size() < expected && System.nanoTime() < deadline) {
+            PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(100);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    payloads.add(notification.getParameter());
+                }
+            }
+        }
+        return payloads;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
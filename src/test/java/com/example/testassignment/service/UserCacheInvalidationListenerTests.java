@@ -0,0 +1,94 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.config.CacheConfig;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.util.DataUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class UserCacheInvalidationListenerTests {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE);
+
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+
+    private final SessionFactory sessionFactory = mock(SessionFactory.class);
+
+    private final org.hibernate.Cache secondLevelCache = mock(org.hibernate.Cache.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UserCacheInvalidationListener listenerUnderTest = new UserCacheInvalidationListener(
+            new DataSourceProperties(), new UserNearCache(cacheManager), entityManagerFactory, meterRegistry,
+            Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+    private Cache users;
+
+    @BeforeEach
+    public void setUp() {
+        BDDMockito.given(entityManagerFactory.unwrap(SessionFactory.class)).willReturn(sessionFactory);
+        BDDMockito.given(sessionFactory.getCache()).willReturn(secondLevelCache);
+        users = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        users.put(1, DataUtils.getJohnDoePersisted());
+        users.put(2, DataUtils.getMikeSmithPersisted());
+        users.put(3, DataUtils.getFrankJonesPersisted());
+    }
+
+    @Test
+    @DisplayName("Test evict notified users functionality")
+    public void givenCachedUsers_whenApplyIds_thenOnlyNotifiedUsersAreEvicted() {
+        //given
+        String payload = "1,3";
+        //when
+        listenerUnderTest.apply(payload);
+        //then
+        assertThat(users.get(1)).isNull();
+        assertThat(users.get(2)).isNotNull();
+        assertThat(users.get(3)).isNull();
+        verify(secondLevelCache).evictEntityData(UserEntity.class, 1);
+        verify(secondLevelCache).evictEntityData(UserEntity.class, 3);
+        verify(secondLevelCache).evictQueryRegion(CacheConfig.USERS_BY_BIRTH_DATE_REGION);
+        assertThat(meterRegistry.get("users.near.cache.invalidations").tag("scope", "user").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test clear caches on all users notification functionality")
+    public void givenCachedUsers_whenApplyAllUsers_thenCachesAreCleared() {
+        //given
+        String payload = UserCacheInvalidationListener.ALL_USERS;
+        //when
+        listenerUnderTest.apply(payload);
+        //then
+        assertThat(users.get(1)).isNull();
+        assertThat(users.get(2)).isNull();
+        assertThat(users.get(3)).isNull();
+        verify(secondLevelCache).evictEntityData(UserEntity.class);
+        verify(secondLevelCache).evictQueryRegion(CacheConfig.USERS_BY_BIRTH_DATE_REGION);
+    }
+
+    @Test
+    @DisplayName("Test clear caches on unexpected payload functionality")
+    public void givenCachedUsers_whenApplyMalformedPayload_thenCachesAreCleared() {
+        //given
+        String payload = "1,oops";
+        //when
+        listenerUnderTest.apply(payload);
+        //then
+        assertThat(users.get(2)).isNull();
+        verify(secondLevelCache).evictEntityData(UserEntity.class);
+    }
+}
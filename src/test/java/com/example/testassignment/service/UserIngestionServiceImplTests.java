@@ -0,0 +1,26 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.util.DataUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserIngestionServiceImplTests {
+
+    @Test
+    @DisplayName("Test COPY row encoding functionality")
+    public void givenUserDto_whenAppendCopyRow_thenQuotedCsvLineIsAppended() {
+        //given
+        UserDto dto = DataUtils.getJohnDoeDtoTransient();
+        dto.setAddress("12 \"Main\" St, apt 3");
+        dto.setPhoneNumber(null);
+        StringBuilder copyData = new StringBuilder();
+        //when
+        UserIngestionServiceImpl.appendCopyRow(copyData, dto);
+        //then
+        assertThat(copyData.toString())
+                .isEqualTo("\"john.doe@mail.com\",\"John\",\"Doe\",\"1990-05-15\",\"12 \"\"Main\"\" St, apt 3\",\n");
+    }
+}
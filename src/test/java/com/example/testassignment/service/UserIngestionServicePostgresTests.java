@@ -0,0 +1,142 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.dto.UserIngestionResultDto;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.repository.SequenceBlock;
+import com.example.testassignment.util.DataUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class UserIngestionServicePostgresTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16.3"));
+
+    private static DriverManagerDataSource dataSource;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private UserIngestionServiceImpl serviceUnderTest;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    public static void migrate() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration/postgresql")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.execute("ALTER SEQUENCE users_id_seq RESTART");
+        serviceUnderTest = new UserIngestionServiceImpl(jdbcTemplate, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), new UserRules(18),
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(serviceUnderTest, "chunkSize", 50);
+        ReflectionTestUtils.setField(serviceUnderTest, "workers", 2);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    @DisplayName("Test ingestion into a fresh sequence keeps clear of Hibernate's blocks functionality")
+    public void givenFreshSequence_whenIngest_thenIdsArePositiveUniqueAndOutsideHibernateBlocks() {
+        //given
+        int users = UserEntity.ID_ALLOCATION_SIZE * 2 + 20;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < users; i++) {
+            UserDto dto = DataUtils.getJohnDoeDtoTransient();
+            dto.setEmail("user" + i + "@mail.com");
+            ndjson.append(json(dto)).append('\n');
+        }
+        //when
+        UserIngestionResultDto result = ingest(ndjson.toString());
+        long hibernateHi = jdbcTemplate.queryForObject("SELECT nextval('users_id_seq')", Long.class);
+        int hibernateFirstId = new SequenceBlock(UserEntity.ID_ALLOCATION_SIZE).refill(hibernateHi);
+        //then
+        List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM users", Integer.class);
+        assertThat(result.getMerged()).isEqualTo(users);
+        assertThat(ids).hasSize(users).doesNotHaveDuplicates().allSatisfy(id -> {
+            assertThat(id).isPositive();
+            assertThat(id).isNotBetween(hibernateFirstId, (int) hibernateHi);
+        });
+    }
+
+    @Test
+    @DisplayName("Test ingestion drops duplicate and existing emails functionality")
+    public void givenDuplicateAndExistingEmails_whenIngest_thenEachEmailIsInsertedOnce() {
+        //given
+        jdbcTemplate.update("INSERT INTO users (id, email, first_name, last_name, birth_date) VALUES (?, ?, ?, ?, ?)",
+                Integer.MAX_VALUE, "john.doe@mail.com", "John", "Doe", LocalDate.of(1990, 5, 15));
+        UserDto existing = DataUtils.getJohnDoeDtoTransient();
+        existing.setEmail("John.Doe@Mail.com");
+        UserDto mike = DataUtils.getMikeSmithDtoTransient();
+        UserDto mikeAgain = DataUtils.getMikeSmithDtoTransient();
+        mikeAgain.setEmail(mike.getEmail().toUpperCase());
+        String ndjson = json(existing) + "\n" + json(mike) + "\n" + json(mikeAgain) + "\n";
+        //when
+        UserIngestionResultDto result = ingest(ndjson);
+        //then
+        assertThat(result.getAccepted()).isEqualTo(3);
+        assertThat(result.getMerged()).isEqualTo(1);
+        assertThat(result.getDuplicates()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT lower(email) FROM users ORDER BY 1", String.class))
+                .containsExactly("john.doe@mail.com", mike.getEmail().toLowerCase());
+    }
+
+    private UserIngestionResultDto ingest(String ndjson) {
+        return transactionTemplate.execute(status -> {
+            try {
+                return serviceUnderTest.ingest(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                        UserIngestionService.Format.NDJSON);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private String json(UserDto dto) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.config.CacheConfig;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.util.DataUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserNearCacheTests {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE);
+
+    private final UserNearCache cacheUnderTest = new UserNearCache(cacheManager);
+
+    private final Cache users = cacheManager.getCache(CacheConfig.USERS_CACHE);
+
+    @Test
+    @DisplayName("Test loaded user is cached functionality")
+    public void givenEmptyCache_whenGetTwice_thenUserIsLoadedOnce() {
+        //given
+        UserEntity user = DataUtils.getJohnDoePersisted();
+        AtomicInteger loads = new AtomicInteger();
+        //when
+        cacheUnderTest.get(user.getId(), () -> {
+            loads.incrementAndGet();
+            return user;
+        });
+        UserEntity cached = cacheUnderTest.get(user.getId(), () -> {
+            loads.incrementAndGet();
+            return user;
+        });
+        //then
+        assertThat(cached).isEqualTo(user);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Test load overlapping an invalidation is not cached functionality")
+    public void givenInvalidationDuringLoad_whenGet_thenLoadedUserIsNotCached() {
+        //given
+        UserEntity staleUser = DataUtils.getJohnDoePersisted();
+        //when
+        UserEntity loaded = cacheUnderTest.get(staleUser.getId(), () -> {
+            cacheUnderTest.invalidate(staleUser.getId());
+            return staleUser;
+        });
+        //then
+        assertThat(loaded).isEqualTo(staleUser);
+        assertThat(users.get(staleUser.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("Test load overlapping a clear is not cached functionality")
+    public void givenClearDuringLoad_whenGet_thenLoadedUserIsNotCached() {
+        //given
+        UserEntity staleUser = DataUtils.getJohnDoePersisted();
+        //when
+        cacheUnderTest.get(staleUser.getId(), () -> {
+            cacheUnderTest.invalidateAll();
+            return staleUser;
+        });
+        //then
+        assertThat(users.get(staleUser.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("Test load after an invalidation is cached functionality")
+    public void givenInvalidatedUser_whenGet_thenReloadedUserIsCached() {
+        //given
+        UserEntity user = DataUtils.getJohnDoePersisted();
+        users.put(user.getId(), DataUtils.getMikeSmithPersisted());
+        cacheUnderTest.invalidate(user.getId());
+        //when
+        cacheUnderTest.get(user.getId(), () -> user);
+        //then
+        assertThat(users.get(user.getId(), UserEntity.class)).isEqualTo(user);
+    }
+
+    @Test
+    @DisplayName("Test committed change evicts user functionality")
+    public void givenCachedUser_whenUserChanged_thenUserIsEvictedAndNotRefilledByOverlappingLoad() {
+        //given
+        UserEntity user = DataUtils.getJohnDoePersisted();
+        cacheUnderTest.get(user.getId(), () -> user);
+        //when
+        UserEntity loaded = cacheUnderTest.get(2, () -> {
+            cacheUnderTest.onUserChanged(UserChangedEvent.updated(2, user.getBirthDate(), user.getBirthDate()));
+            return DataUtils.getMikeSmithPersisted();
+        });
+        cacheUnderTest.onUserChanged(UserChangedEvent.deleted(user.getId(), user.getBirthDate()));
+        //then
+        assertThat(loaded).isNotNull();
+        assertThat(users.get(2)).isNull();
+        assertThat(users.get(user.getId())).isNull();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.event.UserChangeMessage;
+import com.example.testassignment.event.UserChangeSink;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.repository.UserOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class UserOutboxRelayTests {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private final UserOutboxRepository outboxRepository = mock(UserOutboxRepository.class);
+
+    private final UserChangeSink sink = mock(UserChangeSink.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UserOutboxRelay relayUnderTest = new UserOutboxRelay(outboxRepository, List.of(sink),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), Clock.fixed(NOW, ZoneOffset.UTC),
+            meterRegistry, 2);
+
+    @Test
+    @DisplayName("Test relay outbox messages functionality")
+    public void givenFullAndPartialBatch_whenRelay_thenAllMessagesArePublishedAndDeleted() {
+        //given
+        List<UserChangeMessage> firstBatch = List.of(message(1), message(2));
+        List<UserChangeMessage> secondBatch = List.of(message(3));
+        BDDMockito.given(outboxRepository.lockBatch(2))
+                .willReturn(firstBatch, secondBatch);
+        //when
+        relayUnderTest.relay();
+        //then
+        verify(sink).publish(firstBatch);
+        verify(sink).publish(secondBatch);
+        verify(outboxRepository).delete(firstBatch);
+        verify(outboxRepository).delete(secondBatch);
+        assertThat(meterRegistry.get("users.outbox.relayed").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("users.outbox.lag").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test relay outbox messages with failing sink functionality")
+    public void givenFailingSink_whenRelay_thenMessagesAreKept() {
+        //given
+        BDDMockito.given(outboxRepository.lockBatch(2))
+                .willReturn(List.of(message(1)));
+        doThrow(new IllegalStateException("sink is down")).when(sink).publish(anyList());
+        //when
+        relayUnderTest.relay();
+        //then
+        verify(outboxRepository, never()).delete(any());
+        assertThat(meterRegistry.get("users.outbox.relayed").counter().count()).isZero();
+    }
+
+    private static UserChangeMessage message(long id) {
+        return new UserChangeMessage(id, UserChangedEvent.ChangeType.CREATED, (int) id, LocalDate.of(1990, 5, 15),
+                null, NOW.minusMillis(50));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.testassignment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class UserPartitionMaintenanceTests {
+
+    private final UserPartitionMaintenance maintenanceUnderTest =
+            new UserPartitionMaintenance(mock(JdbcTemplate.class), Clock.systemUTC(), 10);
+
+    @Test
+    @DisplayName("Test create statements for upcoming partitions functionality")
+    public void givenToday_whenCreateStatements_thenCurrentAndNextDecadeAreCreated() {
+        //given
+        LocalDate today = LocalDate.of(2026, 10, 18);
+        //when
+        List<String> statements = maintenanceUnderTest.createStatements(today);
+        //then
+        assertThat(statements).containsExactly(
+                "CREATE TABLE IF NOT EXISTS users_p2020 PARTITION OF users FOR VALUES FROM ('2020-01-01') TO ('2030-01-01')",
+                "CREATE TABLE IF NOT EXISTS users_p2030 PARTITION OF users FOR VALUES FROM ('2030-01-01') TO ('2040-01-01')");
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.util.DataUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserRangeQueryCacheTests {
+
+    private final UserRangeQueryCache cacheUnderTest = new UserRangeQueryCache(100, Duration.ofMinutes(1));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private List<UserEntity> load(UserEntity... users) {
+        loads.incrementAndGet();
+        return List.of(users);
+    }
+
+    @Test
+    @DisplayName("Test created user inside cached range functionality")
+    public void givenCachedPages_whenUserCreatedInsideOneRange_thenOnlyThatPageIsInvalidated() {
+        //given
+        LocalDate eighties = LocalDate.of(1980, 1, 1);
+        LocalDate nineties = LocalDate.of(1990, 1, 1);
+        Pageable pageable = PageRequest.of(0, 20);
+        cacheUnderTest.get(eighties, nineties.minusDays(1), pageable, () -> load(DataUtils.getMikeSmithPersisted()));
+        cacheUnderTest.get(nineties, nineties.plusYears(10), pageable, () -> load(DataUtils.getJohnDoePersisted()));
+        //when
+        cacheUnderTest.onUserChanged(UserChangedEvent.created(4, LocalDate.of(1995, 1, 1)));
+        cacheUnderTest.get(eighties, nineties.minusDays(1), pageable, () -> load(DataUtils.getMikeSmithPersisted()));
+        cacheUnderTest.get(nineties, nineties.plusYears(10), pageable, () -> load(DataUtils.getJohnDoePersisted()));
+        //then
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test deleted user contained in cached page functionality")
+    public void givenCachedPage_whenContainedUserDeleted_thenPageIsInvalidated() {
+        //given
+        LocalDate from = LocalDate.of(1980, 1, 1);
+        LocalDate to = LocalDate.of(1999, 12, 31);
+        UserEntity user = DataUtils.getJohnDoePersisted();
+        cacheUnderTest.get(from, to, Pageable.unpaged(), () -> load(user));
+        //when
+        cacheUnderTest.onUserChanged(UserChangedEvent.deleted(user.getId(), user.getBirthDate()));
+        //then
+        assertThat(cacheUnderTest.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test different pages of the same range functionality")
+    public void givenSameRange_whenDifferentPagesRequested_thenEachPageIsLoaded() {
+        //given
+        LocalDate from = LocalDate.of(1980, 1, 1);
+        LocalDate to = LocalDate.of(1999, 12, 31);
+        //when
+        cacheUnderTest.get(from, to, PageRequest.of(0, 1), () -> load(DataUtils.getMikeSmithPersisted()));
+        cacheUnderTest.get(from, to, PageRequest.of(1, 1), () -> load(DataUtils.getJohnDoePersisted()));
+        cacheUnderTest.get(from, to, PageRequest.of(0, 1), () -> load(DataUtils.getMikeSmithPersisted()));
+        //then
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test deleted user shifts later cached pages functionality")
+    public void givenCachedPagesZeroAndOne_whenUserDeletedFromPageZero_thenPageOneIsReloaded() {
+        //given
+        LocalDate from = LocalDate.of(1970, 1, 1);
+        LocalDate to = LocalDate.of(1999, 12, 31);
+        UserEntity frank = DataUtils.getFrankJonesPersisted();
+        cacheUnderTest.get(from, to, PageRequest.of(0, 1), () -> load(frank));
+        cacheUnderTest.get(from, to, PageRequest.of(1, 1), () -> load(DataUtils.getMikeSmithPersisted()));
+        //when
+        cacheUnderTest.onUserChanged(UserChangedEvent.deleted(frank.getId(), frank.getBirthDate()));
+        List<UserEntity> pageOne = cacheUnderTest.get(from, to, PageRequest.of(1, 1),
+                () -> load(DataUtils.getJohnDoePersisted())).users();
+        //then
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(pageOne).containsExactly(DataUtils.getJohnDoePersisted());
+    }
+
+    @Test
+    @DisplayName("Test user moved out of cached range functionality")
+    public void givenCachedRange_whenUserBirthDateMovedOutOfRange_thenRangeIsInvalidated() {
+        //given
+        LocalDate from = LocalDate.of(1970, 1, 1);
+        LocalDate to = LocalDate.of(1979, 12, 31);
+        UserEntity frank = DataUtils.getFrankJonesPersisted();
+        cacheUnderTest.get(from, to, PageRequest.of(1, 1), () -> load(DataUtils.getMikeSmithPersisted()));
+        //when
+        cacheUnderTest.onUserChanged(UserChangedEvent.updated(frank.getId(), frank.getBirthDate(), LocalDate.of(2000, 1, 1)));
+        //then
+        assertThat(cacheUnderTest.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test cached page keeps its version functionality")
+    public void givenCachedPage_whenGetAgain_thenVersionIsReusedUntilPageChanges() {
+        //given
+        LocalDate from = LocalDate.of(1980, 1, 1);
+        LocalDate to = LocalDate.of(1999, 12, 31);
+        UserEntity user = DataUtils.getJohnDoePersisted();
+        UserEntity changedUser = DataUtils.getJohnDoePersisted();
+        changedUser.setAddress("Changed address");
+        UserRangePage page = cacheUnderTest.get(from, to, Pageable.unpaged(), () -> load(user));
+        //when
+        UserRangePage cachedPage = cacheUnderTest.get(from, to, Pageable.unpaged(), () -> load(changedUser));
+        cacheUnderTest.onUserChanged(UserChangedEvent.updated(user.getId(), user.getBirthDate(), user.getBirthDate()));
+        UserRangePage reloadedPage = cacheUnderTest.get(from, to, Pageable.unpaged(), () -> load(changedUser));
+        //then
+        assertThat(cachedPage).isSameAs(page);
+        assertThat(page.version()).matches("[0-9a-f]{32}");
+        assertThat(reloadedPage.version()).isNotEqualTo(page.version());
+        assertThat(loads.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.exception.UserNotAdultException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UserRulesTests {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @Test
+    @DisplayName("Test adult check on 18th birthday functionality")
+    public void givenEighteenthBirthdayToday_whenIsAdult_thenTrue() {
+        //given
+        UserRules rulesUnderTest = new UserRules(18, clockAt(LocalDate.of(2024, 6, 1)));
+        //when
+        boolean adult = rulesUnderTest.isAdult(LocalDate.of(2006, 6, 1));
+        boolean notYetAdult = rulesUnderTest.isAdult(LocalDate.of(2006, 6, 2));
+        //then
+        assertThat(adult).isTrue();
+        assertThat(notYetAdult).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test adult check matches period calculation functionality")
+    public void givenBirthDatesAroundLeapDays_whenIsAdult_thenSameAsPeriodCalculation() {
+        //given
+        for (LocalDate today = LocalDate.of(2023, 12, 1); today.isBefore(LocalDate.of(2024, 4, 1)); today = today.plusDays(1)) {
+            UserRules rulesUnderTest = new UserRules(18, clockAt(today));
+            for (LocalDate birthDate = LocalDate.of(2005, 12, 1); birthDate.isBefore(LocalDate.of(2006, 4, 1)); birthDate = birthDate.plusDays(1)) {
+                //when
+                boolean adult = rulesUnderTest.isAdult(birthDate);
+                //then
+                assertThat(adult)
+                        .as("born %s, today %s", birthDate, today)
+                        .isEqualTo(Period.between(birthDate, today).getYears() >= 18);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test adult check after midnight functionality")
+    public void givenClockPassesMidnight_whenIsAdult_thenCutoffIsRefreshed() {
+        //given
+        MutableClock clock = new MutableClock(LocalDate.of(2024, 5, 31).atTime(23, 59).atZone(ZONE).toInstant());
+        UserRules rulesUnderTest = new UserRules(18, clock);
+        LocalDate birthDate = LocalDate.of(2006, 6, 1);
+        assertThat(rulesUnderTest.isAdult(birthDate)).isFalse();
+        //when
+        clock.instant = LocalDate.of(2024, 6, 1).atStartOfDay(ZONE).toInstant();
+        //then
+        assertThat(rulesUnderTest.isAdult(birthDate)).isTrue();
+        assertThat(rulesUnderTest.today()).isEqualTo(LocalDate.of(2024, 6, 1));
+    }
+
+    @Test
+    @DisplayName("Test check not adult functionality")
+    public void givenMinor_whenCheckAdult_thenExceptionIsThrown() {
+        //given
+        UserRules rulesUnderTest = new UserRules(18, clockAt(LocalDate.of(2024, 6, 1)));
+        //when
+        assertThrows(
+                UserNotAdultException.class, () -> rulesUnderTest.checkAdult(LocalDate.of(2010, 1, 1))
+        );
+        //then
+    }
+
+    @Test
+    @DisplayName("Test check incorrect birth date range functionality")
+    public void givenFromAfterTo_whenCheckBirthDateRange_thenExceptionIsThrown() {
+        //given
+        UserRules rulesUnderTest = new UserRules(18, clockAt(LocalDate.of(2024, 6, 1)));
+        //when
+        assertThrows(
+                BirthDateRangeException.class,
+                () -> rulesUnderTest.checkBirthDateRange(LocalDate.of(2000, 1, 2), LocalDate.of(2000, 1, 1))
+        );
+        //then
+    }
+
+    private static Clock clockAt(LocalDate date) {
+        return Clock.fixed(date.atTime(12, 0).atZone(ZONE).toInstant(), ZONE);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,26 +1,45 @@
 package com.example.testassignment.service;
 
+import com.example.testassignment.config.CacheConfig;
+import com.example.testassignment.config.UserMetrics;
+import com.example.testassignment.dto.UserCursor;
+import com.example.testassignment.dto.UserImportResultDto;
 import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
 import com.example.testassignment.exception.BirthDateRangeException;
+import com.example.testassignment.exception.EmailAlreadyExistsException;
 import com.example.testassignment.exception.UserNotAdultException;
 import com.example.testassignment.exception.UserNotFoundException;
+import com.example.testassignment.repository.UserOutboxRepository;
 import com.example.testassignment.repository.UserRepository;
 import com.example.testassignment.util.DataUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.CollectionUtils;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -34,6 +53,36 @@ public class UserServiceImplTests {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Validator validator;
+
+    @Spy
+    private UserRangeQueryCache rangeQueryCache = new UserRangeQueryCache(100, Duration.ofMinutes(1));
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private UserRules userRules = new UserRules(18);
+
+    @Spy
+    private UserMetrics userMetrics = new UserMetrics(new SimpleMeterRegistry());
+
+    @Mock
+    private UserEmailFilter emailFilter;
+
+    @Mock
+    private UserBirthDateIndex birthDateIndex;
+
+    @Mock
+    private UserOutboxRepository outboxRepository;
+
+    @Spy
+    private UserNearCache nearCache = new UserNearCache(new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE));
+
     @InjectMocks
     private UserServiceImpl serviceUnderTest;
 
@@ -48,6 +97,8 @@ public class UserServiceImplTests {
         UserEntity savedUser = serviceUnderTest.saveUser(userToSave);
         //then
         assertThat(savedUser).isNotNull();
+        verify(outboxRepository, times(1)).append(any(UserChangedEvent.class));
+        verify(eventPublisher, times(1)).publishEvent(any(UserChangedEvent.class));
     }
 
     @Test
@@ -55,13 +106,123 @@ public class UserServiceImplTests {
     public void givenUserToSaveWithBirthDateUnder18_whenSaveUser_thenExceptionIsThrown() {
         //given
         UserEntity userToSave = DataUtils.getJohnDoeTransientNotAdult();
-        BDDMockito.given(userRepository.save(any(UserEntity.class)))
-                .willThrow(UserNotAdultException.class);
         //when
         assertThrows(
                UserNotAdultException.class, () -> serviceUnderTest.saveUser(userToSave)
        );
         //then
+        verify(userRepository, never()).save(any(UserEntity.class));
+    }
+
+    @Test
+    @DisplayName("Test save user with taken email functionality")
+    public void givenEmailIsTaken_whenSaveUser_thenExceptionIsThrown() {
+        //given
+        UserEntity userToSave = DataUtils.getJohnDoeTransient();
+        BDDMockito.given(emailFilter.mightExist(userToSave.getEmail()))
+                .willReturn(true);
+        BDDMockito.given(userRepository.existsByEmailIgnoreCase(userToSave.getEmail()))
+                .willReturn(true);
+        //when
+        assertThrows(
+                EmailAlreadyExistsException.class, () -> serviceUnderTest.saveUser(userToSave)
+        );
+        //then
+        verify(userRepository, never()).save(any(UserEntity.class));
+    }
+
+    @Test
+    @DisplayName("Test save user with email filter false positive functionality")
+    public void givenEmailFilterFalsePositive_whenSaveUser_thenUserIsSaved() {
+        //given
+        UserEntity userToSave = DataUtils.getJohnDoeTransient();
+        BDDMockito.given(emailFilter.mightExist(userToSave.getEmail()))
+                .willReturn(true);
+        BDDMockito.given(userRepository.existsByEmailIgnoreCase(userToSave.getEmail()))
+                .willReturn(false);
+        BDDMockito.given(userRepository.save(any(UserEntity.class)))
+                .willReturn(DataUtils.getJohnDoePersisted());
+        //when
+        serviceUnderTest.saveUser(userToSave);
+        //then
+        verify(emailFilter, times(1)).recordFalsePositive();
+        verify(emailFilter, times(1)).add(userToSave.getEmail());
+    }
+
+    @Test
+    @DisplayName("Test save user with unknown email functionality")
+    public void givenEmailFilterNegative_whenSaveUser_thenDatabaseIsNotQueried() {
+        //given
+        UserEntity userToSave = DataUtils.getJohnDoeTransient();
+        BDDMockito.given(userRepository.save(any(UserEntity.class)))
+                .willReturn(DataUtils.getJohnDoePersisted());
+        //when
+        serviceUnderTest.saveUser(userToSave);
+        //then
+        verify(userRepository, never()).existsByEmailIgnoreCase(anyString());
+    }
+
+    @Test
+    @DisplayName("Test import users functionality")
+    public void givenAdultAndNotAdultUsers_whenImportUsers_thenOnlyAdultUsersAreSaved() {
+        //given
+        ReflectionTestUtils.setField(serviceUnderTest, "importBatchSize", 10);
+        List<UserEntity> users = List.of(
+                DataUtils.getJohnDoeTransient(),
+                DataUtils.getJohnDoeTransientNotAdult(),
+                DataUtils.getMikeSmithTransient());
+        //when
+        UserImportResultDto result = serviceUnderTest.importUsers(users.iterator());
+        //then
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getRow()).isEqualTo(1);
+        verify(userRepository, times(1)).saveAll(List.of(users.get(0), users.get(2)));
+    }
+
+    @Test
+    @DisplayName("Test import users with rejected batch functionality")
+    public void givenBatchRejectedByDatabase_whenImportUsers_thenRowsAreRetriedOneByOne() {
+        //given
+        ReflectionTestUtils.setField(serviceUnderTest, "importBatchSize", 10);
+        UserEntity user1 = DataUtils.getJohnDoeTransient();
+        UserEntity user2 = DataUtils.getMikeSmithTransient();
+        BDDMockito.given(userRepository.saveAll(anyList()))
+                .willThrow(new DataIntegrityViolationException("duplicate key"));
+        BDDMockito.given(userRepository.save(user1))
+                .willThrow(new DataIntegrityViolationException("duplicate key"));
+        //when
+        UserImportResultDto result = serviceUnderTest.importUsers(List.of(user1, user2).iterator());
+        //then
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getRow()).isEqualTo(0);
+        verify(userRepository, times(1)).save(user2);
+    }
+
+    @Test
+    @DisplayName("Test get user by id functionality")
+    public void givenCorrectId_whenGetUserById_thenUserIsReturned() {
+        //given
+        UserEntity user = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userRepository.findById(user.getId()))
+                .willReturn(Optional.of(user));
+        //when
+        UserEntity obtainedUser = serviceUnderTest.getUserById(user.getId());
+        //then
+        assertThat(obtainedUser).isEqualTo(user);
+    }
+
+    @Test
+    @DisplayName("Test get user by incorrect id functionality")
+    public void givenIncorrectId_whenGetUserById_thenExceptionIsThrown() {
+        //given
+        BDDMockito.given(userRepository.findById(anyInt()))
+                .willReturn(Optional.empty());
+        //when
+        assertThrows(UserNotFoundException.class, () -> serviceUnderTest.getUserById(1));
+        //then
     }
 
     @Test
@@ -69,15 +230,16 @@ public class UserServiceImplTests {
     public void givenUserToUpdate_whenUpdateUser_thenRepositoryIsCalled() {
         //given
         UserEntity userToUpdate = DataUtils.getJohnDoePersisted();
-        BDDMockito.given(userRepository.existsById(anyInt()))
-                .willReturn(true);
-        BDDMockito.given(userRepository.save(any(UserEntity.class)))
-                .willReturn(userToUpdate);
+        BDDMockito.given(userRepository.updateReturningPreviousBirthDate(any(UserEntity.class)))
+                .willReturn(Optional.of(LocalDate.of(1989, 1, 1)));
         //when
         UserEntity updatedUser = serviceUnderTest.updateUser(userToUpdate);
         //then
         assertThat(updatedUser).isNotNull();
-        verify(userRepository, times(1)).save(any(UserEntity.class));
+        verify(userRepository, times(1)).updateReturningPreviousBirthDate(any(UserEntity.class));
+        verify(userRepository, never()).existsById(anyInt());
+        verify(eventPublisher, times(1)).publishEvent(
+                UserChangedEvent.updated(1, LocalDate.of(1989, 1, 1), userToUpdate.getBirthDate()));
     }
 
     @Test
@@ -85,14 +247,95 @@ public class UserServiceImplTests {
     public void givenUserToUpdateWithIncorrectId_whenUpdateUser_thenExceptionIsThrown() {
         //given
         UserEntity userToUpdate = DataUtils.getJohnDoePersisted();
-        BDDMockito.given(userRepository.existsById(anyInt()))
-                .willReturn(false);
+        BDDMockito.given(userRepository.updateReturningPreviousBirthDate(any(UserEntity.class)))
+                .willReturn(Optional.empty());
         //when
         assertThrows(
                 UserNotFoundException.class, () -> serviceUnderTest.updateUser(userToUpdate)
         );
         //then
-        verify(userRepository, never()).save(any(UserEntity.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test patch user functionality")
+    public void givenPatch_whenPatchUser_thenRepositoryIsCalled() {
+        //given
+        UserEntity patch = UserEntity.builder().email("updated@email.com").build();
+        BDDMockito.given(userRepository.patchReturningPreviousBirthDate(1, patch))
+                .willReturn(Optional.of(LocalDate.of(1990, 5, 15)));
+        //when
+        serviceUnderTest.patchUser(1, patch);
+        //then
+        verify(eventPublisher, times(1)).publishEvent(UserChangedEvent.updated(1, null, null));
+    }
+
+    @Test
+    @DisplayName("Test patch user with incorrect id functionality")
+    public void givenIncorrectId_whenPatchUser_thenExceptionIsThrown() {
+        //given
+        UserEntity patch = UserEntity.builder().email("updated@email.com").build();
+        BDDMockito.given(userRepository.patchReturningPreviousBirthDate(1, patch))
+                .willReturn(Optional.empty());
+        //when
+        assertThrows(UserNotFoundException.class, () -> serviceUnderTest.patchUser(1, patch));
+        //then
+    }
+
+    @Test
+    @DisplayName("Test save user with email taken concurrently functionality")
+    public void givenEmailIndexViolation_whenSaveUser_thenEmailAlreadyExistsExceptionIsThrown() {
+        //given
+        UserEntity userToSave = DataUtils.getJohnDoeTransient();
+        BDDMockito.given(userRepository.save(any(UserEntity.class)))
+                .willReturn(userToSave);
+        BDDMockito.willThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("duplicate key value violates unique constraint \"uk_users_email_lower\"")))
+                .given(userRepository).flush();
+        //when
+        assertThrows(EmailAlreadyExistsException.class, () -> serviceUnderTest.saveUser(userToSave));
+        //then
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test save user with other constraint violation functionality")
+    public void givenOtherConstraintViolation_whenSaveUser_thenExceptionIsRethrown() {
+        //given
+        UserEntity userToSave = DataUtils.getJohnDoeTransient();
+        BDDMockito.given(userRepository.save(any(UserEntity.class)))
+                .willThrow(new DataIntegrityViolationException("null value in column \"last_name\""));
+        //when
+        assertThrows(DataIntegrityViolationException.class, () -> serviceUnderTest.saveUser(userToSave));
+        //then
+    }
+
+    @Test
+    @DisplayName("Test update user with taken email functionality")
+    public void givenEmailIndexViolation_whenUpdateUser_thenEmailAlreadyExistsExceptionIsThrown() {
+        //given
+        UserEntity userToUpdate = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userRepository.updateReturningPreviousBirthDate(any(UserEntity.class)))
+                .willThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("duplicate key value violates unique constraint \"uk_user_emails_email_lower\"")));
+        //when
+        assertThrows(EmailAlreadyExistsException.class, () -> serviceUnderTest.updateUser(userToUpdate));
+        //then
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test patch user with taken email functionality")
+    public void givenEmailIndexViolation_whenPatchUser_thenEmailAlreadyExistsExceptionIsThrown() {
+        //given
+        UserEntity patch = UserEntity.builder().email("mike.smith@mail.com").build();
+        BDDMockito.given(userRepository.patchReturningPreviousBirthDate(1, patch))
+                .willThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("Unique index or primary key violation: \"PUBLIC.UK_USERS_EMAIL_LOWER_INDEX_4\"")));
+        //when
+        assertThrows(EmailAlreadyExistsException.class, () -> serviceUnderTest.patchUser(1, patch));
+        //then
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -108,13 +351,49 @@ public class UserServiceImplTests {
         BDDMockito.given(userRepository.findByBirthDateBetween(from, to, Pageable.unpaged()))
                 .willReturn(users);
         //when
-        List<UserEntity> obtainedUsers = serviceUnderTest.getAllUsersByBirthDateRange(from, to, Pageable.unpaged());
+        List<UserEntity> obtainedUsers = serviceUnderTest.getAllUsersByBirthDateRange(from, to, Pageable.unpaged()).users();
         //then
         assertThat(obtainedUsers).isNotNull();
         assertThat(obtainedUsers.size()).isEqualTo(2);
         assertThat(obtainedUsers).containsExactlyInAnyOrder(user1, user2);
     }
 
+    @Test
+    @DisplayName("Test get users by birth date range from index functionality")
+    public void givenIndexedRange_whenGetAllUsersByBirthDateRange_thenUsersAreLoadedByIdInIndexOrder() {
+        //given
+        LocalDate from = LocalDate.of(1984, 3, 10);
+        LocalDate to = LocalDate.of(1991, 5, 15);
+        UserEntity user1 = DataUtils.getJohnDoePersisted();//1990-5-15
+        UserEntity user2 = DataUtils.getMikeSmithPersisted();//1985-8-20
+        List<Integer> ids = List.of(user2.getId(), user1.getId());
+        BDDMockito.given(birthDateIndex.findIds(from, to, Pageable.unpaged()))
+                .willReturn(Optional.of(ids));
+        BDDMockito.given(userRepository.findByIdInAndBirthDateBetween(ids, from, to))
+                .willReturn(List.of(user1, user2));
+        //when
+        List<UserEntity> obtainedUsers = serviceUnderTest.getAllUsersByBirthDateRange(from, to, Pageable.unpaged()).users();
+        //then
+        assertThat(obtainedUsers).containsExactly(user2, user1);
+        verify(userRepository, never()).findByBirthDateBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test get users by birth date range twice functionality")
+    public void givenCachedRange_whenGetAllUsersByBirthDateRange_thenRepositoryIsCalledOnce() {
+        //given
+        LocalDate from = LocalDate.of(1984, 3, 10);
+        LocalDate to = LocalDate.of(1991, 5, 15);
+        BDDMockito.given(userRepository.findByBirthDateBetween(from, to, Pageable.unpaged()))
+                .willReturn(List.of(DataUtils.getJohnDoePersisted()));
+        //when
+        serviceUnderTest.getAllUsersByBirthDateRange(from, to, Pageable.unpaged());
+        List<UserEntity> obtainedUsers = serviceUnderTest.getAllUsersByBirthDateRange(from, to, Pageable.unpaged()).users();
+        //then
+        assertThat(obtainedUsers).hasSize(1);
+        verify(userRepository, times(1)).findByBirthDateBetween(from, to, Pageable.unpaged());
+    }
+
     @Test
     @DisplayName("Test get users with incorrect from date")
     public void givenThreeUsersWithIncorrectFromDate_whenGetAllUsersByBirthDateRange_thenExceptionIsThrown() {
@@ -126,27 +405,90 @@ public class UserServiceImplTests {
         //then
     }
 
+    @Test
+    @DisplayName("Test get users after keyset cursor functionality")
+    public void givenCursor_whenGetUsersByBirthDateRangeAfter_thenSeekQueryStartsAfterCursor() {
+        //given
+        LocalDate from = LocalDate.of(1984, 3, 10);
+        LocalDate to = LocalDate.of(1991, 5, 15);
+        UserEntity user1 = DataUtils.getJohnDoePersisted();//1990-5-15
+        UserEntity user2 = DataUtils.getMikeSmithPersisted();//1985-8-20
+        BDDMockito.given(userRepository.findByBirthDateRangeAfter(eq(to), eq(user2.getBirthDate()), eq(user2.getId()), any(Pageable.class)))
+                .willReturn(List.of(user1));
+        //when
+        List<UserEntity> obtainedUsers = serviceUnderTest.getUsersByBirthDateRangeAfter(from, to, UserCursor.of(user2), 10);
+        //then
+        assertThat(obtainedUsers).containsExactly(user1);
+    }
+
+    @Test
+    @DisplayName("Test get first keyset page functionality")
+    public void givenNoCursor_whenGetUsersByBirthDateRangeAfter_thenSeekQueryStartsAtFromDate() {
+        //given
+        LocalDate from = LocalDate.of(1984, 3, 10);
+        LocalDate to = LocalDate.of(1991, 5, 15);
+        BDDMockito.given(userRepository.findByBirthDateRangeAfter(eq(to), eq(from), eq(Integer.MIN_VALUE), any(Pageable.class)))
+                .willReturn(List.of(DataUtils.getMikeSmithPersisted()));
+        //when
+        List<UserEntity> obtainedUsers = serviceUnderTest.getUsersByBirthDateRangeAfter(from, to, null, 10);
+        //then
+        assertThat(obtainedUsers).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Test export users by birth date range functionality")
+    public void givenThreeUsers_whenExportUsersByBirthDateRange_thenEachUserIsPassedAndDetached() {
+        //given
+        LocalDate from = LocalDate.of(1970, 1, 1);
+        LocalDate to = LocalDate.of(1995, 1, 1);
+        UserEntity user1 = DataUtils.getFrankJonesPersisted();
+        UserEntity user2 = DataUtils.getMikeSmithPersisted();
+        UserEntity user3 = DataUtils.getJohnDoePersisted();
+        BDDMockito.given(userRepository.streamByBirthDateBetween(from, to))
+                .willReturn(Stream.of(user1, user2, user3));
+        List<UserEntity> exportedUsers = new ArrayList<>();
+        //when
+        serviceUnderTest.exportUsersByBirthDateRange(from, to, exportedUsers::add);
+        //then
+        assertThat(exportedUsers).containsExactly(user1, user2, user3);
+        verify(entityManager, times(3)).detach(any(UserEntity.class));
+    }
+
+    @Test
+    @DisplayName("Test export users with incorrect from date")
+    public void givenIncorrectFromDate_whenExportUsersByBirthDateRange_thenExceptionIsThrown() {
+        //given
+        LocalDate from = LocalDate.of(1991, 3, 10);
+        LocalDate to = LocalDate.of(1984, 5, 15);
+        //when
+        assertThrows(BirthDateRangeException.class, () -> serviceUnderTest.exportUsersByBirthDateRange(from, to, user -> {}));
+        //then
+        verify(userRepository, never()).streamByBirthDateBetween(any(LocalDate.class), any(LocalDate.class));
+    }
+
     @Test
     @DisplayName("Test delete by id functionality")
     public void givenCorrectId_whenDeleteById_thenDeleteRepoMethodIsCalled() {
         //given
-        BDDMockito.given(userRepository.findById(anyInt()))
-                .willReturn(Optional.of(DataUtils.getJohnDoePersisted()));
+        BDDMockito.given(userRepository.deleteReturningBirthDate(anyInt()))
+                .willReturn(Optional.of(LocalDate.of(1990, 5, 15)));
         //when
         serviceUnderTest.deleteById(1);
         //then
-        verify(userRepository, times(1)).deleteById(anyInt());
+        verify(userRepository, times(1)).deleteReturningBirthDate(anyInt());
+        verify(eventPublisher, times(1)).publishEvent(UserChangedEvent.deleted(1, LocalDate.of(1990, 5, 15)));
+        verify(userRepository, never()).findById(anyInt());
     }
 
     @Test
     @DisplayName("Test hard delete by incorrect id functionality")
     public void givenIncorrectId_whenDeleteById_thenExceptionIsThrown() {
         //given
-        BDDMockito.given(userRepository.findById(anyInt()))
+        BDDMockito.given(userRepository.deleteReturningBirthDate(anyInt()))
                 .willReturn(Optional.empty());
         //when
         assertThrows(UserNotFoundException.class, () -> serviceUnderTest.deleteById(1));
         //then
-        verify(userRepository, never()).deleteById(anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 }
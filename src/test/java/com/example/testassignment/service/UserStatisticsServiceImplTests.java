@@ -0,0 +1,97 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.HistogramBucketDto;
+import com.example.testassignment.dto.UserHistogramDto;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.exception.BirthDateRangeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+public class UserStatisticsServiceImplTests {
+
+    private final UserBirthDateHistogram histogram = new UserBirthDateHistogram(mock(JdbcTemplate.class));
+
+    private final UserRules userRules = new UserRules(18,
+            Clock.fixed(LocalDate.of(2024, 6, 1).atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+
+    private final UserStatisticsServiceImpl serviceUnderTest = new UserStatisticsServiceImpl(histogram, userRules);
+
+    @BeforeEach
+    public void setUp() {
+        histogram.onUserChanged(UserChangedEvent.created(1, LocalDate.of(1990, 5, 15)));
+        histogram.onUserChanged(UserChangedEvent.created(2, LocalDate.of(1985, 8, 20)));
+        histogram.onUserChanged(UserChangedEvent.created(3, LocalDate.of(1978, 3, 10)));
+    }
+
+    @Test
+    @DisplayName("Test birth year histogram functionality")
+    public void givenRange_whenGetBirthYearHistogram_thenOneBucketPerYear() {
+        //given
+        LocalDate from = LocalDate.of(1985, 6, 1);
+        LocalDate to = LocalDate.of(1990, 6, 1);
+        //when
+        UserHistogramDto result = serviceUnderTest.getBirthYearHistogram(from, to);
+        //then
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getBuckets()).extracting(HistogramBucketDto::getLabel)
+                .containsExactly("1985", "1986", "1987", "1988", "1989", "1990");
+        assertThat(result.getBuckets().get(0).getFrom()).isEqualTo(from);
+        assertThat(result.getBuckets().get(0).getCount()).isEqualTo(1);
+        assertThat(result.getBuckets().get(5).getTo()).isEqualTo(to);
+    }
+
+    @Test
+    @DisplayName("Test age band histogram functionality")
+    public void givenRange_whenGetAgeBandHistogram_thenUsersAreCountedByAge() {
+        //given
+        LocalDate from = LocalDate.of(1970, 1, 1);
+        LocalDate to = LocalDate.of(2024, 6, 1);
+        //when
+        UserHistogramDto result = serviceUnderTest.getAgeBandHistogram(from, to, 10);
+        //then
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getBuckets()).extracting(HistogramBucketDto::getLabel)
+                .containsExactly("0-9", "10-19", "20-29", "30-39", "40-49", "50-59");
+        assertThat(result.getBuckets()).extracting(HistogramBucketDto::getCount)
+                .containsExactly(0L, 0L, 0L, 2L, 1L, 0L);
+    }
+
+    @Test
+    @DisplayName("Test histogram with incorrect range functionality")
+    public void givenFromAfterTo_whenGetBirthYearHistogram_thenExceptionIsThrown() {
+        //given
+        LocalDate from = LocalDate.of(2000, 1, 1);
+        LocalDate to = LocalDate.of(1990, 1, 1);
+        //when
+        assertThrows(
+                BirthDateRangeException.class, () -> serviceUnderTest.getBirthYearHistogram(from, to)
+        );
+        //then
+    }
+
+    @Test
+    @DisplayName("Test age band histogram with non-positive band width functionality")
+    public void givenNonPositiveBandWidth_whenGetAgeBandHistogram_thenExceptionIsThrown() {
+        //given
+        LocalDate from = LocalDate.of(1970, 1, 1);
+        LocalDate to = LocalDate.of(2024, 6, 1);
+        //when
+        assertThrows(
+                IllegalArgumentException.class, () -> serviceUnderTest.getAgeBandHistogram(from, to, 0)
+        );
+        assertThrows(
+                IllegalArgumentException.class, () -> serviceUnderTest.getAgeBandHistogram(from, to, -10)
+        );
+        //then
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.testassignment.service;
+
+import com.example.testassignment.dto.UserWriteStatusDto;
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.event.UserChangedEvent;
+import com.example.testassignment.exception.UserNotAdultException;
+import com.example.testassignment.exception.UserQueueFullException;
+import com.example.testassignment.repository.UserOutboxRepository;
+import com.example.testassignment.repository.UserRepository;
+import com.example.testassignment.util.DataUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UserWriteBehindServiceImplTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final UserEmailFilter emailFilter = mock(UserEmailFilter.class);
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private UserWriteBehindServiceImpl serviceUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        serviceUnderTest = new UserWriteBehindServiceImpl(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), userRepository,
+                mock(UserOutboxRepository.class), new UserRules(18),
+                emailFilter, eventPublisher, new SimpleMeterRegistry(),
+                true, 1, 10, Duration.ofMillis(100), Duration.ofHours(1));
+        BDDMockito.given(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .willReturn(50L);
+    }
+
+    @Test
+    @DisplayName("Test enqueue user functionality")
+    public void givenUser_whenEnqueue_thenIdIsAssignedAndUserIsPending() {
+        //given
+        UserEntity user = DataUtils.getJohnDoeTransient();
+        //when
+        UserEntity queuedUser = serviceUnderTest.enqueue(user);
+        //then
+        assertThat(queuedUser.getId()).isEqualTo(1);
+        assertThat(serviceUnderTest.getStatus(1).getStatus()).isEqualTo(UserWriteStatusDto.Status.PENDING);
+        verify(emailFilter).add(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("Test enqueue not adult user functionality")
+    public void givenNotAdultUser_whenEnqueue_thenExceptionIsThrown() {
+        //given
+        UserEntity user = DataUtils.getJohnDoeTransientNotAdult();
+        //when
+        assertThrows(UserNotAdultException.class, () -> serviceUnderTest.enqueue(user));
+        //then
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("Test enqueue user into full queue functionality")
+    public void givenFullQueue_whenEnqueue_thenExceptionIsThrown() {
+        //given
+        serviceUnderTest.enqueue(DataUtils.getJohnDoeTransient());
+        UserEntity user = DataUtils.getMikeSmithTransient();
+        //when
+        assertThrows(UserQueueFullException.class, () -> serviceUnderTest.enqueue(user));
+        //then
+        assertThat(serviceUnderTest.getStatus(user.getId()).getStatus()).isEqualTo(UserWriteStatusDto.Status.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Test write batch functionality")
+    public void givenQueuedUsers_whenWrite_thenUsersArePersistedAndEventsArePublished() {
+        //given
+        UserEntity user = serviceUnderTest.enqueue(DataUtils.getJohnDoeTransient());
+        BDDMockito.given(userRepository.existsById(user.getId()))
+                .willReturn(true);
+        //when
+        serviceUnderTest.write(List.of(user));
+        //then
+        assertThat(serviceUnderTest.getStatus(user.getId()).getStatus()).isEqualTo(UserWriteStatusDto.Status.PERSISTED);
+        verify(eventPublisher).publishEvent(UserChangedEvent.created(user.getId(), user.getBirthDate()));
+    }
+
+    @Test
+    @DisplayName("Test write rejected batch functionality")
+    public void givenRejectedBatch_whenWrite_thenFailedUserIsReported() {
+        //given
+        UserEntity user = serviceUnderTest.enqueue(DataUtils.getJohnDoeTransient());
+        BDDMockito.given(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .willThrow(new DuplicateKeyException("duplicate email"));
+        BDDMockito.given(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .willThrow(new DuplicateKeyException("duplicate email"));
+        //when
+        serviceUnderTest.write(List.of(user));
+        //then
+        UserWriteStatusDto status = serviceUnderTest.getStatus(user.getId());
+        assertThat(status.getStatus()).isEqualTo(UserWriteStatusDto.Status.FAILED);
+        assertThat(status.getMessage()).isEqualTo("duplicate email");
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Test write when transaction cannot be started functionality")
+    public void givenUnavailableTransaction_whenWrite_thenUsersAreReportedAsFailed() {
+        //given
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        BDDMockito.given(transactionManager.getTransaction(any()))
+                .willThrow(new CannotCreateTransactionException("Connection is not available"));
+        serviceUnderTest = new UserWriteBehindServiceImpl(jdbcTemplate,
+                new TransactionTemplate(transactionManager), userRepository,
+                mock(UserOutboxRepository.class), new UserRules(18),
+                emailFilter, eventPublisher, new SimpleMeterRegistry(),
+                true, 10, 10, Duration.ofMillis(100), Duration.ofHours(1));
+        UserEntity john = serviceUnderTest.enqueue(DataUtils.getJohnDoeTransient());
+        UserEntity mike = serviceUnderTest.enqueue(DataUtils.getMikeSmithTransient());
+        //when
+        serviceUnderTest.write(List.of(john, mike));
+        //then
+        UserWriteStatusDto status = serviceUnderTest.getStatus(john.getId());
+        assertThat(status.getStatus()).isEqualTo(UserWriteStatusDto.Status.FAILED);
+        assertThat(status.getMessage()).isEqualTo("Connection is not available");
+        assertThat(serviceUnderTest.getStatus(mike.getId()).getStatus()).isEqualTo(UserWriteStatusDto.Status.FAILED);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
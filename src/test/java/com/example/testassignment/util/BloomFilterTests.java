@@ -0,0 +1,57 @@
+package com.example.testassignment.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BloomFilterTests {
+
+    @Test
+    @DisplayName("Test no false negatives functionality")
+    public void givenAddedValues_whenMightContain_thenAllAreFound() {
+        //given
+        BloomFilter filterUnderTest = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filterUnderTest.put("user" + i + "@mail.com");
+        }
+        //when
+        //then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filterUnderTest.mightContain("user" + i + "@mail.com")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Test false positive rate functionality")
+    public void givenFilledFilter_whenMightContainUnknownValues_thenFalsePositiveRateIsNearTarget() {
+        //given
+        BloomFilter filterUnderTest = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filterUnderTest.put("user" + i + "@mail.com");
+        }
+        //when
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filterUnderTest.mightContain("other" + i + "@mail.com")) {
+                falsePositives++;
+            }
+        }
+        //then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filterUnderTest.expectedFalsePositiveProbability()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    @DisplayName("Test empty filter functionality")
+    public void givenEmptyFilter_whenMightContain_thenFalse() {
+        //given
+        BloomFilter filterUnderTest = new BloomFilter(1_000, 0.01);
+        //when
+        boolean found = filterUnderTest.mightContain("john.doe@mail.com");
+        //then
+        assertThat(found).isFalse();
+        assertThat(filterUnderTest.expectedFalsePositiveProbability()).isZero();
+        assertThat(filterUnderTest.sizeInBytes()).isPositive();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.testassignment.util;
+
+import com.example.testassignment.entity.UserEntity;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic synthetic users at production scale. User {@code i} depends only on the seed and {@code i}, so
+ * rows can be generated on any number of threads and two runs with the same seed produce the same table.
+ * Emails are unique because they embed the index; ages are log-normally distributed from {@code minimumAge}
+ * with a long tail towards old users, which is closer to real sign-ups than a uniform spread.
+ * <p>
+ * Run {@link #main} with the test classpath to fill a database created by the Flyway migrations, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.testassignment.util.UserDataGenerator
+ * -Dexec.args="jdbc:postgresql://localhost:5432/users_db?reWriteBatchedInserts=true postgres secret 10000000"}.
+ */
+public class UserDataGenerator {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (id, email, first_name, last_name, birth_date, address, phone_number) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+            "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah",
+            "Olena", "Andrii", "Iryna", "Taras", "Sofia", "Mateusz", "Anna", "Lukas", "Emma", "Noah", "Mia", "Liam"};
+
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Wilson", "Anderson", "Taylor", "Moore", "Shevchenko", "Kovalenko",
+            "Bondarenko", "Nowak", "Kowalski", "Muller", "Schmidt", "Rossi", "Dubois", "Novak", "Horvat"};
+
+    private static final String[] STREETS = {"Main St", "Oak St", "Elm St", "Maple Ave", "Park Rd", "Khreshchatyk St",
+            "High St", "Station Rd", "Church Ln", "Mill Rd"};
+
+    private static final String[] DOMAINS = {"gmail.com", "outlook.com", "yahoo.com", "ukr.net", "proton.me", "example.com"};
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final long seed;
+
+    private final LocalDate referenceDate;
+
+    private final int minimumAge;
+
+    public UserDataGenerator(long seed, LocalDate referenceDate, int minimumAge) {
+        this.seed = seed;
+        this.referenceDate = referenceDate;
+        this.minimumAge = minimumAge;
+    }
+
+    public UserDataGenerator(long seed) {
+        this(seed, LocalDate.now(), 18);
+    }
+
+    /**
+     * Returns user {@code index} without an identifier.
+     */
+    public UserEntity user(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return UserEntity.builder()
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "." + index
+                        + "@" + DOMAINS[random.nextInt(DOMAINS.length)])
+                .firstName(firstName)
+                .lastName(lastName)
+                .birthDate(birthDate(random))
+                .address((1 + random.nextInt(300)) + " " + STREETS[random.nextInt(STREETS.length)])
+                .phoneNumber(random.nextInt(10) == 0 ? null : "+380" + (500000000 + random.nextInt(500000000)))
+                .build();
+    }
+
+    public List<UserEntity> users(long fromIndex, int count) {
+        List<UserEntity> users = new ArrayList<>(count);
+        for (long i = fromIndex; i < fromIndex + count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    /**
+     * Inserts users {@code 0..count-1} with identifiers {@code 1..count} into an empty {@code users} table on
+     * {@code threads} connections, then moves {@code users_id_seq} past them so the application keeps allocating
+     * fresh identifiers. Returns the number of inserted rows.
+     */
+    public long insert(DataSource dataSource, long count, int threads) throws SQLException {
+        long perThread = (count + threads - 1) / threads;
+        List<Future<Long>> slices = new ArrayList<>(threads);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (long from = 0; from < count; from += perThread) {
+                long sliceFrom = from;
+                long sliceTo = Math.min(count, from + perThread);
+                slices.add(executor.submit(() -> insert(dataSource, sliceFrom, sliceTo)));
+            }
+        }
+        long inserted = 0;
+        for (Future<Long> slice : slices) {
+            try {
+                inserted += slice.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Data generation was interrupted.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Data generation failed.", e.getCause());
+            }
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            // The pooled optimizer hands out (value - allocation size, value], so the next value must clear count.
+            statement.execute("ALTER SEQUENCE users_id_seq RESTART WITH " + (count + UserEntity.ID_ALLOCATION_SIZE));
+        }
+        return inserted;
+    }
+
+    private long insert(DataSource dataSource, long fromIndex, long toIndex) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            connection.setAutoCommit(false);
+            for (long i = fromIndex; i < toIndex; i++) {
+                UserEntity user = user(i);
+                statement.setInt(1, Math.toIntExact(i + 1));
+                statement.setString(2, user.getEmail());
+                statement.setString(3, user.getFirstName());
+                statement.setString(4, user.getLastName());
+                statement.setDate(5, Date.valueOf(user.getBirthDate()));
+                statement.setString(6, user.getAddress());
+                statement.setString(7, user.getPhoneNumber());
+                statement.addBatch();
+                if ((i - fromIndex + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Age is {@code minimumAge} years plus a log-normal offset with a median of about 16 years, capped at
+     * 80 years, so most users are in their thirties while every decade up to a century is populated.
+     */
+    private LocalDate birthDate(SplittableRandom random) {
+        double extraYears = Math.min(80, Math.exp(2.77 + 0.75 * random.nextGaussian()));
+        long extraDays = 1 + (long) (extraYears * 365.25);
+        return referenceDate.minusYears(minimumAge).minusDays(extraDays);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 4) {
+            System.err.println("Usage: UserDataGenerator <jdbc-url> <username> <password> <count> [threads] [seed]");
+            System.exit(2);
+        }
+        String url = args[0];
+        String username = args[1];
+        String password = args[2];
+        long count = Long.parseLong(args[3]);
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 42;
+
+        DataSource dataSource = new DriverManagerDataSource(url, username, password);
+        long startedAt = System.nanoTime();
+        long inserted = new UserDataGenerator(seed).insert(dataSource, count, threads);
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        System.out.printf("Inserted %d users in %d ms (%d rows/s)%n", inserted, millis, inserted * 1000 / millis);
+    }
+}
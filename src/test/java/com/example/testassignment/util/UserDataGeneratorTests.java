@@ -0,0 +1,83 @@
+package com.example.testassignment.util;
+
+import com.example.testassignment.entity.UserEntity;
+import com.example.testassignment.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserDataGeneratorTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Test generated users are deterministic functionality")
+    public void givenSameSeed_whenGenerateUsers_thenUsersAreEqual() {
+        //given
+        UserDataGenerator first = new UserDataGenerator(7, TODAY, 18);
+        UserDataGenerator second = new UserDataGenerator(7, TODAY, 18);
+        //when
+        List<UserEntity> firstUsers = first.users(1000, 100);
+        List<UserEntity> secondUsers = second.users(1000, 100);
+        //then
+        assertThat(firstUsers).isEqualTo(secondUsers);
+        assertThat(new UserDataGenerator(8, TODAY, 18).users(1000, 100)).isNotEqualTo(firstUsers);
+    }
+
+    @Test
+    @DisplayName("Test generated users are unique adults with skewed ages functionality")
+    public void givenGenerator_whenGenerateUsers_thenEmailsAreUniqueAndAgesSkewed() {
+        //given
+        UserDataGenerator generator = new UserDataGenerator(42, TODAY, 18);
+        //when
+        List<UserEntity> users = generator.users(0, 10_000);
+        //then
+        assertThat(users).extracting(UserEntity::getEmail).doesNotHaveDuplicates();
+        int[] ages = users.stream().mapToInt(user -> Period.between(user.getBirthDate(), TODAY).getYears()).sorted().toArray();
+        assertThat(ages[0]).isGreaterThanOrEqualTo(18);
+        assertThat(ages[ages.length - 1]).isLessThanOrEqualTo(98);
+        assertThat(ages[ages.length / 2]).isBetween(30, 38);
+        assertThat(ages[ages.length * 9 / 10]).isGreaterThan(2 * ages[ages.length / 2] - ages[ages.length / 10]);
+    }
+
+    @Test
+    @DisplayName("Test insert generated users functionality")
+    public void givenGenerator_whenInsert_thenRowsAreLoadedAndSequenceIsMoved() throws Exception {
+        //given
+        UserDataGenerator generator = new UserDataGenerator(42, TODAY, 18);
+        //when
+        long inserted = generator.insert(dataSource, 5_000, 4);
+        Long nextBlock = new JdbcTemplate(dataSource).queryForObject("SELECT NEXT VALUE FOR users_id_seq", Long.class);
+        //then
+        assertThat(inserted).isEqualTo(5_000);
+        assertThat(userRepository.count()).isEqualTo(5_000);
+        assertThat(userRepository.findById(1)).hasValueSatisfying(user ->
+                assertThat(user.getEmail()).isEqualTo(generator.user(0).getEmail()));
+        assertThat(nextBlock - UserEntity.ID_ALLOCATION_SIZE + 1).isGreaterThan(5_000);
+    }
+}
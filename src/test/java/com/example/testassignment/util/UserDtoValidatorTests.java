@@ -0,0 +1,89 @@
+package com.example.testassignment.util;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.service.UserRules;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Email;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserDtoValidatorTests {
+
+    private final Validator beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final UserDtoValidator validatorUnderTest = new UserDtoValidator(
+            new UserRules(18, Clock.fixed(LocalDate.of(2024, 6, 1).atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC)),
+            beanValidator);
+
+    @Test
+    @DisplayName("Test validate valid user functionality")
+    public void givenValidUserDto_whenValidate_thenNoErrors() {
+        //given
+        UserDto dto = DataUtils.getJohnDoeDtoTransient();
+        Errors errors = new BeanPropertyBindingResult(dto, "userDto");
+        //when
+        validatorUnderTest.validate(dto, errors);
+        //then
+        assertThat(errors.hasErrors()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test validate empty user functionality")
+    public void givenEmptyUserDto_whenValidate_thenSameMessagesAsBeanValidation() {
+        //given
+        UserDto dto = new UserDto();
+        Errors errors = new BeanPropertyBindingResult(dto, "userDto");
+        //when
+        validatorUnderTest.validate(dto, errors);
+        //then
+        assertThat(errors.getFieldErrors())
+                .extracting(error -> error.getField() + ": " + error.getDefaultMessage())
+                .containsExactlyInAnyOrderElementsOf(beanValidator.validate(dto).stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("Test validate birth date today functionality")
+    public void givenBirthDateToday_whenValidate_thenPastError() {
+        //given
+        UserDto dto = DataUtils.getJohnDoeDtoTransient();
+        dto.setBirthDate(LocalDate.of(2024, 6, 1));
+        Errors errors = new BeanPropertyBindingResult(dto, "userDto");
+        //when
+        validatorUnderTest.validate(dto, errors);
+        //then
+        assertThat(errors.getFieldError("birthDate").getDefaultMessage()).isEqualTo("Birth date must be in the past");
+    }
+
+    @Test
+    @DisplayName("Test email check matches Bean Validation functionality")
+    public void givenEmailSamples_whenIsValidEmail_thenSameResultAsBeanValidation() {
+        //given
+        List<String> emails = List.of(
+                "john.doe@example.com", "john+tag@sub.example.co", "a@b", "x@localhost", "",
+                "plain", "@example.com", "john@", "john..doe@example.com", ".john@example.com",
+                "john@example..com", "john@-example.com", "john@example-.com", "john@ex--ample.com",
+                "john@example.com.", "john doe@example.com", "john@exa mple.com", "john@@example.com",
+                "\"john doe\"@example.com", "john@[192.168.0.1]", "jöhn@exämple.com", "a".repeat(65) + "@example.com",
+                "john@" + "a".repeat(64) + ".com");
+        for (String email : emails) {
+            //when
+            boolean valid = validatorUnderTest.isValidEmail(email);
+            //then
+            boolean expected = beanValidator.validateValue(UserDto.class, "email", email).stream()
+                    .noneMatch(violation -> violation.getConstraintDescriptor().getAnnotation() instanceof Email);
+            assertThat(valid).as(email).isEqualTo(expected);
+        }
+    }
+}
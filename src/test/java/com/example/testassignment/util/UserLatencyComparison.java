@@ -0,0 +1,103 @@
+package com.example.testassignment.util;
+
+import com.example.testassignment.TestassignmentApplication;
+import eu.rekawek.toxiproxy.Proxy;
+import eu.rekawek.toxiproxy.ToxiproxyClient;
+import eu.rekawek.toxiproxy.model.ToxicDirection;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.ToxiproxyContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the platform-thread and the virtual-thread request model while PostgreSQL is slow. Starts PostgreSQL
+ * behind a Toxiproxy that delays every response from the database by {@code latency} &plusmn; {@code jitter}
+ * milliseconds, preloads {@code existing-users} with {@link UserDataGenerator}, then starts the application once
+ * per model against the proxy and runs {@link UserLoadDriver} on each, printing one latency table per model.
+ * Each model runs on its own copy of the preloaded database, so the second run does not see the writes of the
+ * first. Needs Docker.
+ * <p>
+ * Arguments are {@code key=value} pairs, all optional: {@code latency} in milliseconds (50), {@code jitter} (20),
+ * {@code threads} (400, more than Tomcat's 200 platform threads), {@code duration} in seconds (60),
+ * {@code existing-users} (100000), {@code seed} (42) and {@code mix} as for {@link UserLoadDriver}.
+ */
+public class UserLatencyComparison {
+
+    private static final int PROXY_PORT = 8666;
+
+    private static final String POSTGRES_IMAGE = "postgres:16.3";
+
+    private static final String TOXIPROXY_IMAGE = "ghcr.io/shopify/toxiproxy:2.5.0";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int threads = Integer.parseInt(options.getOrDefault("threads", "400"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        int existingUsers = Integer.parseInt(options.getOrDefault("existing-users", "100000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Map<UserLoadDriver.Operation, Integer> mix =
+                UserLoadDriver.parseMix(options.getOrDefault("mix", "create:20,update:10,delete:5,get:35,range:30"));
+
+        try (Network network = Network.newNetwork();
+             PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse(POSTGRES_IMAGE))
+                     .withNetwork(network)
+                     .withNetworkAliases("postgres");
+             ToxiproxyContainer toxiproxy = new ToxiproxyContainer(DockerImageName.parse(TOXIPROXY_IMAGE))
+                     .withNetwork(network)) {
+            postgres.start();
+            toxiproxy.start();
+
+            Flyway.configure()
+                    .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                    .locations("classpath:db/migration/postgresql")
+                    .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                    .load()
+                    .migrate();
+            new UserDataGenerator(seed).insert(new DriverManagerDataSource(
+                    postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()), existingUsers, 4);
+
+            Proxy proxy = new ToxiproxyClient(toxiproxy.getHost(), toxiproxy.getControlPort())
+                    .createProxy("postgres", "0.0.0.0:" + PROXY_PORT, "postgres:" + PostgreSQLContainer.POSTGRESQL_PORT);
+            proxy.toxics()
+                    .latency("latency", ToxicDirection.DOWNSTREAM, Long.parseLong(options.getOrDefault("latency", "50")))
+                    .setJitter(Long.parseLong(options.getOrDefault("jitter", "20")));
+            JdbcTemplate maintenance = new JdbcTemplate(new DriverManagerDataSource("jdbc:postgresql://"
+                    + postgres.getHost() + ":" + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/postgres",
+                    postgres.getUsername(), postgres.getPassword()));
+
+            for (boolean virtualThreads : List.of(false, true)) {
+                String database = virtualThreads ? "users_virtual" : "users_platform";
+                maintenance.execute("CREATE DATABASE " + database + " TEMPLATE " + postgres.getDatabaseName());
+                String proxiedUrl = "jdbc:postgresql://" + toxiproxy.getHost() + ":" + toxiproxy.getMappedPort(PROXY_PORT)
+                        + "/" + database + "?reWriteBatchedInserts=true";
+                try (ConfigurableApplicationContext application = new SpringApplicationBuilder(TestassignmentApplication.class)
+                        .run("--server.port=0",
+                                "--spring.datasource.url=" + proxiedUrl,
+                                "--spring.datasource.username=" + postgres.getUsername(),
+                                "--spring.datasource.password=" + postgres.getPassword(),
+                                "--spring.threads.virtual.enabled=" + virtualThreads)) {
+                    String port = application.getEnvironment().getRequiredProperty("local.server.port");
+                    UserLoadDriver driver = new UserLoadDriver("http://localhost:" + port, threads, duration,
+                            existingUsers, seed, mix);
+                    System.out.println();
+                    System.out.println(virtualThreads ? "Virtual threads with admission limiter" : "Platform threads");
+                    UserLoadDriver.print(driver.run(), duration);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.testassignment.util;
+
+import com.example.testassignment.dto.UserDto;
+import com.example.testassignment.entity.UserEntity;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load test for {@code /api/v1/users}: each worker thread issues a weighted mix of creates,
+ * updates, deletes, lookups and birth date range queries back to back for a fixed duration, then throughput and
+ * latency percentiles are printed per operation. Lookups and range queries hit users {@code 1..existing-users}
+ * loaded by {@link UserDataGenerator}; updates and deletes only touch users the same worker created, so workers
+ * never race on a row. Bodies come from {@link UserDataGenerator} with indices far above the preloaded ones, so
+ * emails never collide.
+ * <p>
+ * Arguments are {@code key=value} pairs, all optional: {@code base-url} (default {@code http://localhost:8080}),
+ * {@code threads} (8), {@code duration} in seconds (60), {@code existing-users} (0), {@code seed} (42) and
+ * {@code mix}, e.g. {@code mix=create:20,update:10,delete:5,get:35,range:30}.
+ */
+public class UserLoadDriver {
+
+    enum Operation {
+        CREATE, UPDATE, DELETE, GET, RANGE
+    }
+
+    private static final long CREATED_INDEX_OFFSET = 1L << 40;
+
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1930, 1, 1);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final String usersUrl;
+
+    private final int threads;
+
+    private final Duration duration;
+
+    private final int existingUsers;
+
+    private final long seed;
+
+    private final Map<Operation, Integer> mix;
+
+    private final UserDataGenerator generator;
+
+    public UserLoadDriver(String baseUrl, int threads, Duration duration, int existingUsers, long seed,
+                          Map<Operation, Integer> mix) {
+        this.usersUrl = baseUrl + "/api/v1/users";
+        this.threads = threads;
+        this.duration = duration;
+        this.existingUsers = existingUsers;
+        this.seed = seed;
+        this.mix = mix;
+        this.generator = new UserDataGenerator(seed);
+    }
+
+    public Map<Operation, Latencies> run() {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Map<Operation, Latencies>>> workers = new ArrayList<>(threads);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                int worker = i;
+                workers.add(executor.submit(() -> work(worker, deadline)));
+            }
+        }
+        Map<Operation, Latencies> total = new EnumMap<>(Operation.class);
+        for (Future<Map<Operation, Latencies>> worker : workers) {
+            try {
+                worker.get().forEach((operation, latencies) ->
+                        total.computeIfAbsent(operation, o -> new Latencies()).addAll(latencies));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Load test was interrupted.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load test worker failed.", e.getCause());
+            }
+        }
+        return total;
+    }
+
+    private Map<Operation, Latencies> work(int worker, long deadline) {
+        SplittableRandom random = new SplittableRandom(seed + worker);
+        Map<Operation, Latencies> latencies = new EnumMap<>(Operation.class);
+        List<UserDto> created = new ArrayList<>();
+        long nextIndex = CREATED_INDEX_OFFSET * (worker + 1);
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(random.nextInt(totalWeight));
+            if ((operation == Operation.UPDATE || operation == Operation.DELETE) && created.isEmpty()) {
+                operation = Operation.CREATE;
+            }
+            if ((operation == Operation.GET || operation == Operation.RANGE) && existingUsers == 0 && created.isEmpty()) {
+                operation = Operation.CREATE;
+            }
+            HttpRequest request = switch (operation) {
+                case CREATE -> json(HttpRequest.newBuilder(URI.create(usersUrl)), "POST",
+                        UserDto.fromEntity(generator.user(nextIndex++)));
+                case UPDATE -> {
+                    UserDto user = created.get(random.nextInt(created.size()));
+                    UserEntity changes = generator.user(nextIndex++);
+                    user.setAddress(changes.getAddress());
+                    user.setPhoneNumber(changes.getPhoneNumber());
+                    yield json(HttpRequest.newBuilder(URI.create(usersUrl)), "PUT", user);
+                }
+                case DELETE -> {
+                    UserDto user = created.remove(random.nextInt(created.size()));
+                    yield HttpRequest.newBuilder(URI.create(usersUrl + "/" + user.getId())).DELETE().build();
+                }
+                case GET -> HttpRequest.newBuilder(URI.create(usersUrl + "/" + existingId(random, created))).GET().build();
+                case RANGE -> {
+                    LocalDate from = FIRST_BIRTH_DATE.plusDays(random.nextInt(70 * 365));
+                    LocalDate to = from.plusDays(1 + random.nextInt(365));
+                    yield HttpRequest.newBuilder(URI.create(usersUrl + "?from=" + from + "&to=" + to + "&size=50"))
+                            .GET().build();
+                }
+            };
+
+            long startedAt = System.nanoTime();
+            HttpResponse<byte[]> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException e) {
+                latencies.computeIfAbsent(operation, o -> new Latencies()).error();
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long latency = System.nanoTime() - startedAt;
+            Latencies operationLatencies = latencies.computeIfAbsent(operation, o -> new Latencies());
+            if (response.statusCode() >= 400) {
+                operationLatencies.error();
+                continue;
+            }
+            operationLatencies.add(latency);
+            if (operation == Operation.CREATE) {
+                created.add(read(response.body()));
+            }
+        }
+        return latencies;
+    }
+
+    private Operation pick(int roll) {
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Roll exceeds the total weight.");
+    }
+
+    private int existingId(SplittableRandom random, List<UserDto> created) {
+        if (existingUsers > 0 && (created.isEmpty() || random.nextBoolean())) {
+            return 1 + random.nextInt(existingUsers);
+        }
+        return created.get(random.nextInt(created.size())).getId();
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, String method, UserDto body) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize " + body, e);
+        }
+    }
+
+    private UserDto read(byte[] body) {
+        try {
+            return objectMapper.readValue(body, UserDto.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected create response.", e);
+        }
+    }
+
+    static void print(Map<Operation, Latencies> results, Duration duration) {
+        System.out.printf("%-8s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "op", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        double seconds = duration.toMillis() / 1000.0;
+        results.forEach((operation, latencies) -> System.out.printf("%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operation, latencies.count(), latencies.errors(), latencies.count() / seconds,
+                latencies.percentileMillis(50), latencies.percentileMillis(90), latencies.percentileMillis(99),
+                latencies.percentileMillis(99.9), latencies.percentileMillis(100)));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        UserLoadDriver driver = new UserLoadDriver(
+                options.getOrDefault("base-url", "http://localhost:8080"),
+                Integer.parseInt(options.getOrDefault("threads", "8")),
+                duration,
+                Integer.parseInt(options.getOrDefault("existing-users", "0")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                parseMix(options.getOrDefault("mix", "create:20,update:10,delete:5,get:35,range:30")));
+        print(driver.run(), duration);
+    }
+
+    /**
+     * Raw latencies of one operation in nanoseconds. Workers keep their own instances, which are merged at the end,
+     * so recording needs no synchronization and percentiles are exact.
+     */
+    static class Latencies {
+
+        private long[] nanos = new long[1024];
+
+        private int count;
+
+        private long errors;
+
+        private boolean sorted;
+
+        void add(long latency) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latency;
+            sorted = false;
+        }
+
+        void addAll(Latencies other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.nanos[i]);
+            }
+            errors += other.errors;
+        }
+
+        void error() {
+            errors++;
+        }
+
+        int count() {
+            return count;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        /**
+         * Nearest-rank percentile, so {@code percentileMillis(100)} is the maximum.
+         */
+        double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(nanos, 0, count);
+                sorted = true;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * count);
+            return nanos[Math.max(0, rank - 1)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}